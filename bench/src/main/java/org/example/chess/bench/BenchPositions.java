@@ -0,0 +1,22 @@
+package org.example.chess.bench;
+
+import org.example.chess.engine.Position;
+
+// Positions shared by the benchmarks, selected through a @Param name
+final class BenchPositions {
+    static final String START = "start";
+    static final String MIDDLEGAME = "middlegame";
+    static final String ENDGAME = "endgame";
+
+    private BenchPositions() {
+    }
+
+    static Position load(String name) {
+        return Position.fromFen(switch (name) {
+            case START -> Position.START_FEN;
+            case MIDDLEGAME -> "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+            case ENDGAME -> "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+            default -> throw new IllegalArgumentException("Unknown benchmark position: " + name);
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.chess.bench;
+
+import org.example.chess.engine.Evaluator;
+import org.example.chess.engine.MoveGenerator;
+import org.example.chess.engine.Position;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Per-call latency of the operations the search runs at every node
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PositionBenchmark {
+    @Param({BenchPositions.START, BenchPositions.MIDDLEGAME, BenchPositions.ENDGAME})
+    public String positionName;
+
+    private Position position;
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private final Evaluator evaluator = new Evaluator();
+
+    @Setup
+    public void setup() {
+        position = BenchPositions.load(positionName);
+    }
+
+    @Benchmark
+    public int generatePseudoLegal() {
+        return MoveGenerator.generate(position, moves, 0);
+    }
+
+    @Benchmark
+    public int generateLegal() {
+        return MoveGenerator.generateLegal(position, moves, 0);
+    }
+
+    @Benchmark
+    public int generateCaptures() {
+        return MoveGenerator.generateCaptures(position, moves, 0);
+    }
+
+    // What GameLogic.isKingInCheck delegates to
+    @Benchmark
+    public boolean isInCheck() {
+        return position.isInCheck(Position.WHITE) | position.isInCheck(Position.BLACK);
+    }
+
+    @Benchmark
+    public int evaluate() {
+        return evaluator.evaluate(position);
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.chess.bench;
+
+import org.example.chess.engine.Perft;
+import org.example.chess.engine.Position;
+import org.example.chess.engine.Search;
+import org.example.chess.engine.TranspositionTable;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Whole-tree throughput: fixed-depth search (reported as nodes per second) and perft
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    @Param({BenchPositions.START, BenchPositions.MIDDLEGAME, BenchPositions.ENDGAME})
+    public String positionName;
+
+    @Param({"5"})
+    public int depth;
+
+    private Position position;
+    private TranspositionTable transpositionTable;
+    private Search search;
+    private Perft perft;
+
+    // Searched nodes show up in the results next to the operation rate
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+    }
+
+    @Setup
+    public void setup() {
+        position = BenchPositions.load(positionName);
+        transpositionTable = new TranspositionTable(16);
+        search = new Search(transpositionTable);
+        perft = new Perft(position, depth - 1);
+    }
+
+    // Every search starts from an empty table, otherwise later invocations would only replay stored results
+    @Setup(Level.Invocation)
+    public void resetSearch() {
+        transpositionTable.clear();
+        search.setPosition(position);
+    }
+
+    @Benchmark
+    public int fixedDepthSearch(Nodes counters) {
+        int move = search.iterativeDeepening(1, depth);
+        counters.nodes += search.getNodes();
+        return move;
+    }
+
+    // One ply shallower than the search, perft has no pruning
+    @Benchmark
+    public long perft() {
+        return perft.count(depth - 1);
+    }
+}
@@ -0,0 +1,3 @@
+module org.example.chess.core {
+    exports org.example.chess.engine;
+}
@@ -0,0 +1,85 @@
+package org.example.chess.engine;
+
+// Precomputed attack tables. Leapers are plain lookups; sliders use ray masks cut at the first blocker.
+public final class Attacks {
+    // Ray directions: the first four increase the square index, the last four decrease it
+    private static final int NORTH = 0, EAST = 1, NORTH_EAST = 2, NORTH_WEST = 3;
+    private static final int SOUTH = 4, WEST = 5, SOUTH_WEST = 6, SOUTH_EAST = 7;
+    private static final int[] DIRECTION_FILES = {0, 1, 1, -1, 0, -1, -1, 1};
+    private static final int[] DIRECTION_RANKS = {1, 0, 1, 1, -1, 0, -1, -1};
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+    private static final long[][] RAYS = new long[8][64];
+
+    static {
+        int[] knightFiles = {1, 2, 2, 1, -1, -2, -2, -1};
+        int[] knightRanks = {2, 1, -1, -2, -2, -1, 1, 2};
+        for (int square = 0; square < 64; square++) {
+            int file = square & 7, rank = square >>> 3;
+            for (int i = 0; i < 8; i++) {
+                KNIGHT[square] |= bit(file + knightFiles[i], rank + knightRanks[i]);
+                KING[square] |= bit(file + DIRECTION_FILES[i], rank + DIRECTION_RANKS[i]);
+            }
+            PAWN[Position.WHITE][square] = bit(file - 1, rank + 1) | bit(file + 1, rank + 1);
+            PAWN[Position.BLACK][square] = bit(file - 1, rank - 1) | bit(file + 1, rank - 1);
+            for (int direction = 0; direction < 8; direction++) {
+                int f = file + DIRECTION_FILES[direction], r = rank + DIRECTION_RANKS[direction];
+                while (f >= 0 && f <= 7 && r >= 0 && r <= 7) {
+                    RAYS[direction][square] |= 1L << (r * 8 + f);
+                    f += DIRECTION_FILES[direction];
+                    r += DIRECTION_RANKS[direction];
+                }
+            }
+        }
+    }
+
+    private Attacks() {
+    }
+
+    private static long bit(int file, int rank) {
+        return file < 0 || file > 7 || rank < 0 || rank > 7 ? 0L : 1L << (rank * 8 + file);
+    }
+
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    // Squares attacked by a pawn of the given colour standing on the square
+    public static long pawn(int color, int square) {
+        return PAWN[color][square];
+    }
+
+    public static long bishop(int square, long occupied) {
+        return positiveRay(NORTH_EAST, square, occupied) | positiveRay(NORTH_WEST, square, occupied)
+                | negativeRay(SOUTH_WEST, square, occupied) | negativeRay(SOUTH_EAST, square, occupied);
+    }
+
+    public static long rook(int square, long occupied) {
+        return positiveRay(NORTH, square, occupied) | positiveRay(EAST, square, occupied)
+                | negativeRay(SOUTH, square, occupied) | negativeRay(WEST, square, occupied);
+    }
+
+    public static long queen(int square, long occupied) {
+        return bishop(square, occupied) | rook(square, occupied);
+    }
+
+    private static long positiveRay(int direction, int square, long occupied) {
+        long ray = RAYS[direction][square];
+        long blockers = ray & occupied;
+        if (blockers == 0) return ray;
+        return ray ^ RAYS[direction][Long.numberOfTrailingZeros(blockers)];
+    }
+
+    private static long negativeRay(int direction, int square, long occupied) {
+        long ray = RAYS[direction][square];
+        long blockers = ray & occupied;
+        if (blockers == 0) return ray;
+        return ray ^ RAYS[direction][63 - Long.numberOfLeadingZeros(blockers)];
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.chess.engine;
+
+// Precomputed masks shared by the rules, the move generator and the evaluation.
+public final class Bitboards {
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_1 = 0xFFL;
+
+    private static final long[] FILES = new long[8];
+    private static final long[] ADJACENT_FILES = new long[8];
+    private static final long[][] PASSED_PAWN_MASKS = new long[2][64];
+
+    static {
+        for (int file = 0; file < 8; file++) {
+            FILES[file] = FILE_A << file;
+            ADJACENT_FILES[file] = (file > 0 ? FILE_A << (file - 1) : 0L) | (file < 7 ? FILE_A << (file + 1) : 0L);
+        }
+        for (int square = 0; square < 64; square++) {
+            int file = square & 7, rank = square >>> 3;
+            long span = FILES[file] | ADJACENT_FILES[file];
+            long ranksAbove = rank == 7 ? 0L : -1L << ((rank + 1) * 8);
+            long ranksBelow = rank == 0 ? 0L : -1L >>> ((8 - rank) * 8);
+            PASSED_PAWN_MASKS[Position.WHITE][square] = span & ranksAbove;
+            PASSED_PAWN_MASKS[Position.BLACK][square] = span & ranksBelow;
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    public static long file(int file) {
+        return FILES[file];
+    }
+
+    public static long rank(int rank) {
+        return RANK_1 << (rank * 8);
+    }
+
+    public static long adjacentFiles(int file) {
+        return ADJACENT_FILES[file];
+    }
+
+    // Squares in front of the pawn (own and adjacent files) that must be free of enemy pawns for it to be passed
+    public static long passedPawnMask(int color, int square) {
+        return PASSED_PAWN_MASKS[color][square];
+    }
+}
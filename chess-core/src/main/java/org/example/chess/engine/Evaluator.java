@@ -0,0 +1,202 @@
+package org.example.chess.engine;
+
+// Static evaluation. Material and piece-square totals come from Position; the rest is computed from bitboards.
+// One instance per search thread.
+public class Evaluator {
+    private static final int EVAL_CACHE_SIZE = 1 << 16; // Entries, a power of two
+    private static final int LAZY_MARGIN = 300; // Largest swing expected from mobility, king safety and pawns
+
+    private final PawnHashTable pawnTable = new PawnHashTable(PawnHashTable.DEFAULT_ENTRIES);
+    // Full evaluations by Zobrist key; transpositions reach the same leaves again and again
+    private final long[] evalKeys = new long[EVAL_CACHE_SIZE];
+    private final int[] evalScores = new int[EVAL_CACHE_SIZE];
+    private Position position;
+    private long pawnEntry; // Pawn hash entry of the position being evaluated
+
+    // Static evaluation in centipawns, positive when Black (the AI side) stands better
+    public int evaluate(Position position) {
+        return evaluate(position, -Search.INFINITY, Search.INFINITY);
+    }
+
+    // Lazy evaluation against a window [lower, upper] from Black's point of view: when material and piece-square
+    // scores alone are already LAZY_MARGIN outside it, the remaining terms cannot bring the score back and that
+    // partial score is returned instead
+    public int evaluate(Position position, int lower, int upper) {
+        long key = position.getKey();
+        int index = (int) key & (EVAL_CACHE_SIZE - 1);
+        if (evalKeys[index] == key) return evalScores[index];
+
+        this.position = position;
+        int gamePhase = getGamePhase(); // 0=opening, 1=middlegame, 2=endgame
+        boolean endgame = gamePhase == 2;
+
+        // Material and piece-square totals are maintained by Position on every make/unmake
+        int materialScore = position.material(Position.BLACK) - position.material(Position.WHITE);
+        int positionalScore = position.pieceSquareScore(Position.BLACK, endgame)
+                - position.pieceSquareScore(Position.WHITE, endgame);
+        int materialWeight = gamePhase == 2 ? 80 : 100; // Less focus on material in endgame
+        int positionalWeight = gamePhase == 0 ? 80 : 100; // Less focus on position in opening
+        int score = (materialScore * materialWeight) / 100 + (positionalScore * positionalWeight) / 100;
+        if (score + LAZY_MARGIN <= lower || score - LAZY_MARGIN >= upper) {
+            return score; // Not cached, it is only good enough for this window
+        }
+
+        pawnEntry = probePawns();
+        int mobilityScore = (countMobility(Position.BLACK) - countMobility(Position.WHITE)) * 5; // 5 centipawns per move
+        int kingSafetyScore = evaluateKingSafety(Position.BLACK) - evaluateKingSafety(Position.WHITE);
+        // Pawn structure depends on the pawns alone and comes from the pawn hash table
+        int pawnStructureScore = PawnHashTable.score(pawnEntry);
+
+        // Adjust scores based on game phase
+        int mobilityWeight = gamePhase == 1 ? 100 : 80; // More focus on mobility in middlegame
+        int kingSafetyWeight = gamePhase == 2 ? 50 : 100; // Less focus on king safety in endgame
+        int pawnStructureWeight = gamePhase == 2 ? 120 : 100; // More focus on pawns in endgame
+
+        score += (mobilityScore * mobilityWeight) / 100 +
+                (kingSafetyScore * kingSafetyWeight) / 100 +
+                (pawnStructureScore * pawnStructureWeight) / 100;
+        evalKeys[index] = key;
+        evalScores[index] = score;
+        return score;
+    }
+
+    // Pseudo-legal move count for one side from attack bitboards (castling and en passant are left out)
+    private int countMobility(int color) {
+        long own = position.occupancy(color);
+        long enemies = position.occupancy(1 - color);
+        long empty = ~position.occupancy();
+        long occupied = position.occupancy();
+        int count = 0;
+
+        long pawns = position.pieces(color, Position.PAWN);
+        if (color == Position.WHITE) {
+            long pushes = (pawns << 8) & empty;
+            count += Long.bitCount(pushes) + Long.bitCount(((pushes & Bitboards.rank(2)) << 8) & empty);
+            count += Long.bitCount((pawns << 7) & ~Bitboards.FILE_H & enemies)
+                    + Long.bitCount((pawns << 9) & ~Bitboards.FILE_A & enemies);
+        } else {
+            long pushes = (pawns >>> 8) & empty;
+            count += Long.bitCount(pushes) + Long.bitCount(((pushes & Bitboards.rank(5)) >>> 8) & empty);
+            count += Long.bitCount((pawns >>> 9) & ~Bitboards.FILE_H & enemies)
+                    + Long.bitCount((pawns >>> 7) & ~Bitboards.FILE_A & enemies);
+        }
+
+        long knights = position.pieces(color, Position.KNIGHT);
+        while (knights != 0) {
+            int square = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            count += Long.bitCount(Attacks.knight(square) & ~own);
+        }
+        long bishops = position.pieces(color, Position.BISHOP) | position.pieces(color, Position.QUEEN);
+        while (bishops != 0) {
+            int square = Long.numberOfTrailingZeros(bishops);
+            bishops &= bishops - 1;
+            count += Long.bitCount(Attacks.bishop(square, occupied) & ~own);
+        }
+        long rooks = position.pieces(color, Position.ROOK) | position.pieces(color, Position.QUEEN);
+        while (rooks != 0) {
+            int square = Long.numberOfTrailingZeros(rooks);
+            rooks &= rooks - 1;
+            count += Long.bitCount(Attacks.rook(square, occupied) & ~own);
+        }
+        int king = position.kingSquare(color);
+        if (king >= 0) {
+            count += Long.bitCount(Attacks.king(king) & ~own);
+        }
+        return count;
+    }
+
+    private int evaluateKingSafety(int color) {
+        int king = position.kingSquare(color);
+        if (king < 0) return 0;
+        long around = Attacks.king(king);
+        // Open squares and enemy pieces next to the king
+        int score = 5 * Long.bitCount(around & ~position.occupancy())
+                + 10 * Long.bitCount(around & position.occupancy(1 - color));
+        // Files around the king without an own pawn to shelter it, worse when the enemy has none there either
+        int kingFiles = ((0x7 << (king & 7)) >>> 1) & 0xFF;
+        int ownOpen = PawnHashTable.semiOpenFiles(pawnEntry, color) & kingFiles;
+        int enemyOpen = PawnHashTable.semiOpenFiles(pawnEntry, 1 - color) & ownOpen;
+        return score - 15 * Integer.bitCount(ownOpen) - 10 * Integer.bitCount(enemyOpen);
+    }
+
+    private long probePawns() {
+        long key = position.getPawnKey();
+        long entry = pawnTable.probe(key);
+        if (entry != 0) return entry;
+        long whitePawns = position.pieces(Position.WHITE, Position.PAWN);
+        long blackPawns = position.pieces(Position.BLACK, Position.PAWN);
+        int whiteSemiOpen = 0, blackSemiOpen = 0;
+        for (int col = 0; col < 8; col++) {
+            if ((whitePawns & Bitboards.file(col)) == 0) whiteSemiOpen |= 1 << col;
+            if ((blackPawns & Bitboards.file(col)) == 0) blackSemiOpen |= 1 << col;
+        }
+        return pawnTable.store(key, evaluatePawnStructure(whitePawns, blackPawns), whiteSemiOpen, blackSemiOpen);
+    }
+
+    // Black's point of view like evaluate(); reads nothing but the two pawn bitboards so it can be cached
+    private int evaluatePawnStructure(long whitePawnsBoard, long blackPawnsBoard) {
+        int score = 0;
+        for (int col = 0; col < 8; col++) {
+            long file = Bitboards.file(col);
+            int whitePawns = Long.bitCount(whitePawnsBoard & file);
+            int blackPawns = Long.bitCount(blackPawnsBoard & file);
+            boolean whitePassed = allPassed(whitePawnsBoard & file, Position.WHITE, blackPawnsBoard);
+            boolean blackPassed = allPassed(blackPawnsBoard & file, Position.BLACK, whitePawnsBoard);
+            // Penalize doubled pawns
+            if (whitePawns > 1) score += 20 * (whitePawns - 1); // Penalty for White
+            if (blackPawns > 1) score -= 20 * (blackPawns - 1); // Penalty for Black
+            // Reward passed pawns
+            if (whitePassed && whitePawns > 0) score -= 50; // Bonus for White
+            if (blackPassed && blackPawns > 0) score += 50; // Bonus for Black
+            // Penalize isolated pawns, no friendly pawn on a neighbouring file
+            long neighbours = Bitboards.adjacentFiles(col);
+            if ((whitePawnsBoard & neighbours) == 0) score += 15 * whitePawns;
+            if ((blackPawnsBoard & neighbours) == 0) score -= 15 * blackPawns;
+        }
+        score += 10 * countBackward(whitePawnsBoard, Position.WHITE, blackPawnsBoard);
+        score -= 10 * countBackward(blackPawnsBoard, Position.BLACK, whitePawnsBoard);
+        return score;
+    }
+
+    // Pawns behind all their neighbours whose stop square an enemy pawn controls: they can't advance safely
+    // and no pawn can come to defend them (isolated pawns are counted separately)
+    private int countBackward(long pawns, int color, long enemyPawns) {
+        int count = 0;
+        long remaining = pawns;
+        while (remaining != 0) {
+            int square = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            long neighbours = pawns & Bitboards.adjacentFiles(square & 7);
+            if (neighbours == 0) continue;
+            int stop = color == Position.WHITE ? square + 8 : square - 8;
+            if (stop < 0 || stop > 63) continue;
+            // Neighbours level with or behind the pawn could still guard its stop square
+            long support = Bitboards.passedPawnMask(1 - color, stop) & neighbours;
+            if (support == 0 && (Attacks.pawn(color, stop) & enemyPawns) != 0) count++;
+        }
+        return count;
+    }
+
+    private boolean allPassed(long pawns, int color, long enemyPawns) {
+        while (pawns != 0) {
+            int square = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            if ((Bitboards.passedPawnMask(color, square) & enemyPawns) != 0) return false;
+        }
+        return true;
+    }
+
+    private int getGamePhase() {
+        int totalMaterial = 0;
+        for (int color = Position.WHITE; color <= Position.BLACK; color++) {
+            totalMaterial += Long.bitCount(position.pieces(color, Position.PAWN))
+                    + 3 * Long.bitCount(position.pieces(color, Position.KNIGHT) | position.pieces(color, Position.BISHOP))
+                    + 5 * Long.bitCount(position.pieces(color, Position.ROOK))
+                    + 9 * Long.bitCount(position.pieces(color, Position.QUEEN));
+        }
+        if (totalMaterial > 40) return 0; // Opening
+        if (totalMaterial > 20) return 1; // Middlegame
+        return 2; // Endgame
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.chess.engine;
+
+// How a game ends on the board. The desktop UI, the tournament runner and the game server all ask of(),
+// so they agree on the rules and on which one applies first.
+public enum GameEnd {
+    CHECKMATE, STALEMATE, REPETITION, FIFTY_MOVES, INSUFFICIENT_MATERIAL;
+
+    // null while the game goes on; the side to move is the one mated
+    public static GameEnd of(Position position) {
+        if (!MoveGenerator.hasLegalMove(position)) {
+            return position.isInCheck() ? CHECKMATE : STALEMATE;
+        }
+        if (position.repetitionCount() >= 2) return REPETITION;
+        if (position.getHalfmoveClock() >= 100) return FIFTY_MOVES;
+        if (position.isInsufficientMaterial()) return INSUFFICIENT_MATERIAL;
+        return null;
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.chess.engine;
+
+// Moves fit in 16 bits: from (bits 0-5), to (6-11) and a 4-bit kind (12-15), so they can be stored in a
+// short or a char wherever space matters. The kind says what the move does:
+//   0 quiet, 1 double pawn push, 2 castling, 4 capture, 5 en passant,
+//   8-11 promotion to knight..queen, 12-15 the same promotions with a capture
+// Bit 2 of the kind marks captures and bit 3 promotions, the low two bits pick the promotion piece.
+// The constants below are kinds already shifted into place, ORed into a move by of() and promotion().
+public final class Move {
+    public static final int NONE = 0;
+
+    public static final int CAPTURE = 4 << 12;
+    public static final int EN_PASSANT = 5 << 12;
+    public static final int CASTLING = 2 << 12;
+    public static final int DOUBLE_PUSH = 1 << 12;
+    private static final int PROMOTION = 8 << 12;
+    private static final int KIND_MASK = 0xF << 12;
+
+    private Move() {
+    }
+
+    public static int of(int from, int to, int flags) {
+        return from | (to << 6) | flags;
+    }
+
+    // flags is 0 or CAPTURE
+    public static int promotion(int from, int to, int promotionType, int flags) {
+        return from | (to << 6) | PROMOTION | ((promotionType - Position.KNIGHT) << 12) | flags;
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    // Piece type to promote to, 0 when the move is not a promotion (PAWN is never a promotion target)
+    public static int promotionType(int move) {
+        return isPromotion(move) ? Position.KNIGHT + ((move >>> 12) & 0x3) : 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (move & PROMOTION) != 0;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (move & KIND_MASK) == EN_PASSANT;
+    }
+
+    public static boolean isCastling(int move) {
+        return (move & KIND_MASK) == CASTLING;
+    }
+
+    public static boolean isDoublePush(int move) {
+        return (move & KIND_MASK) == DOUBLE_PUSH;
+    }
+
+    public static String toUci(int move) {
+        if (move == NONE) return "0000";
+        StringBuilder sb = new StringBuilder(5);
+        appendSquare(sb, from(move));
+        appendSquare(sb, to(move));
+        if (isPromotion(move)) sb.append("pnbrqk".charAt(promotionType(move)));
+        return sb.toString();
+    }
+
+    private static void appendSquare(StringBuilder sb, int square) {
+        sb.append((char) ('a' + (square & 7))).append((char) ('1' + (square >>> 3)));
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.chess.engine;
+
+// Pseudo-legal move generation for the side to move, written into a caller-owned buffer.
+// Only squares a piece can actually reach are emitted; legality (own king left in check) is
+// checked afterwards with make/unmake.
+public final class MoveGenerator {
+    public static final int MAX_MOVES = 256;
+
+    private MoveGenerator() {
+    }
+
+    // Returns the index after the last generated move
+    public static int generate(Position position, int[] moves, int start) {
+        return generate(position, moves, start, false);
+    }
+
+    // Captures and promotions only, for the quiescence search
+    public static int generateCaptures(Position position, int[] moves, int start) {
+        return generate(position, moves, start, true);
+    }
+
+    private static int generate(Position position, int[] moves, int start, boolean capturesOnly) {
+        int us = position.getSideToMove();
+        long enemies = position.occupancy(1 - us);
+        long occupied = position.occupancy();
+        long excluded = capturesOnly ? ~enemies : position.occupancy(us); // Squares pieces may not move to
+
+        int count = generatePawnMoves(position, us, enemies, occupied, capturesOnly, moves, start);
+
+        long knights = position.pieces(us, Position.KNIGHT);
+        while (knights != 0) {
+            int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            count = addMoves(from, Attacks.knight(from) & ~excluded, enemies, moves, count);
+        }
+        long bishops = position.pieces(us, Position.BISHOP) | position.pieces(us, Position.QUEEN);
+        while (bishops != 0) {
+            int from = Long.numberOfTrailingZeros(bishops);
+            bishops &= bishops - 1;
+            count = addMoves(from, Attacks.bishop(from, occupied) & ~excluded, enemies, moves, count);
+        }
+        long rooks = position.pieces(us, Position.ROOK) | position.pieces(us, Position.QUEEN);
+        while (rooks != 0) {
+            int from = Long.numberOfTrailingZeros(rooks);
+            rooks &= rooks - 1;
+            count = addMoves(from, Attacks.rook(from, occupied) & ~excluded, enemies, moves, count);
+        }
+        int king = position.kingSquare(us);
+        if (king >= 0) {
+            count = addMoves(king, Attacks.king(king) & ~excluded, enemies, moves, count);
+        }
+        return capturesOnly ? count : generateCastling(position, us, occupied, moves, count);
+    }
+
+    // Filters the pseudo-legal moves in place, returns the index after the last legal move
+    public static int generateLegal(Position position, int[] moves, int start) {
+        int end = generate(position, moves, start);
+        int count = start;
+        for (int i = start; i < end; i++) {
+            if (isLegal(position, moves[i])) moves[count++] = moves[i];
+        }
+        return count;
+    }
+
+    public static boolean hasLegalMove(Position position) {
+        int[] moves = new int[MAX_MOVES];
+        int end = generate(position, moves, 0);
+        for (int i = 0; i < end; i++) {
+            if (isLegal(position, moves[i])) return true;
+        }
+        return false;
+    }
+
+    public static boolean isLegal(Position position, int move) {
+        int us = position.getSideToMove();
+        position.makeMove(move);
+        boolean legal = !position.isInCheck(us);
+        position.unmakeMove(move);
+        return legal;
+    }
+
+    public static boolean isInCheck(Position position) {
+        return position.isInCheck();
+    }
+
+    private static int addMoves(int from, long targets, long enemies, int[] moves, int count) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves[count++] = Move.of(from, to, (enemies & (1L << to)) != 0 ? Move.CAPTURE : 0);
+        }
+        return count;
+    }
+
+    private static int generatePawnMoves(Position position, int us, long enemies, long occupied, boolean capturesOnly,
+                                         int[] moves, int count) {
+        int forward = us == Position.WHITE ? 8 : -8;
+        int startRank = us == Position.WHITE ? 1 : 6;
+        int lastRank = us == Position.WHITE ? 7 : 0;
+        int enPassant = position.getEnPassantSquare();
+        long pawns = position.pieces(us, Position.PAWN);
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            int to = from + forward;
+            if ((occupied & (1L << to)) == 0) {
+                if (to >>> 3 == lastRank) {
+                    count = addPromotions(from, to, 0, moves, count);
+                } else if (!capturesOnly) {
+                    moves[count++] = Move.of(from, to, 0);
+                    if (from >>> 3 == startRank && (occupied & (1L << (to + forward))) == 0) {
+                        moves[count++] = Move.of(from, to + forward, Move.DOUBLE_PUSH);
+                    }
+                }
+            }
+            long attacks = Attacks.pawn(us, from);
+            long captures = attacks & enemies;
+            while (captures != 0) {
+                int target = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+                if (target >>> 3 == lastRank) {
+                    count = addPromotions(from, target, Move.CAPTURE, moves, count);
+                } else {
+                    moves[count++] = Move.of(from, target, Move.CAPTURE);
+                }
+            }
+            if (enPassant >= 0 && (attacks & (1L << enPassant)) != 0) {
+                moves[count++] = Move.of(from, enPassant, Move.EN_PASSANT);
+            }
+        }
+        return count;
+    }
+
+    private static int addPromotions(int from, int to, int flags, int[] moves, int count) {
+        moves[count++] = Move.promotion(from, to, Position.QUEEN, flags);
+        moves[count++] = Move.promotion(from, to, Position.ROOK, flags);
+        moves[count++] = Move.promotion(from, to, Position.BISHOP, flags);
+        moves[count++] = Move.promotion(from, to, Position.KNIGHT, flags);
+        return count;
+    }
+
+    private static int generateCastling(Position position, int us, long occupied, int[] moves, int count) {
+        int rights = position.getCastlingRights();
+        int kingSquare = us == Position.WHITE ? 4 : 60;
+        int kingside = us == Position.WHITE ? Position.WHITE_KINGSIDE : Position.BLACK_KINGSIDE;
+        int queenside = us == Position.WHITE ? Position.WHITE_QUEENSIDE : Position.BLACK_QUEENSIDE;
+        if ((rights & (kingside | queenside)) == 0 || position.kingSquare(us) != kingSquare) return count;
+        int them = 1 - us;
+        if (position.isSquareAttacked(kingSquare, them)) return count;
+        // The destination square is verified by the legality check after the move is made
+        if ((rights & kingside) != 0 && (occupied & (0x60L << (kingSquare - 4))) == 0
+                && !position.isSquareAttacked(kingSquare + 1, them)) {
+            moves[count++] = Move.of(kingSquare, kingSquare + 2, Move.CASTLING);
+        }
+        if ((rights & queenside) != 0 && (occupied & (0x0EL << (kingSquare - 4))) == 0
+                && !position.isSquareAttacked(kingSquare - 1, them)) {
+            moves[count++] = Move.of(kingSquare, kingSquare - 2, Move.CASTLING);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.chess.engine;
+
+// Standard algebraic notation (SAN) as used in PGN, and long algebraic (UCI) move parsing.
+public final class Notation {
+    private static final String PIECE_LETTERS = " NBRQK";
+
+    private Notation() {
+    }
+
+    // SAN of a legal move in the position, e.g. "Nbd7", "exd6", "e8=Q+", "O-O-O#". The position is unchanged.
+    public static String toSan(Position position, int move) {
+        int from = Move.from(move), to = Move.to(move);
+        int type = Position.typeOf(position.pieceAt(from));
+        StringBuilder sb = new StringBuilder(8);
+        if (Move.isCastling(move)) {
+            sb.append(to > from ? "O-O" : "O-O-O");
+        } else if (type == Position.PAWN) {
+            if (Move.isCapture(move)) sb.append((char) ('a' + (from & 7))).append('x');
+            appendSquare(sb, to);
+            if (Move.isPromotion(move)) sb.append('=').append(PIECE_LETTERS.charAt(Move.promotionType(move)));
+        } else {
+            sb.append(PIECE_LETTERS.charAt(type));
+            appendDisambiguation(sb, position, move, type);
+            if (Move.isCapture(move)) sb.append('x');
+            appendSquare(sb, to);
+        }
+        position.makeMove(move);
+        if (position.isInCheck()) sb.append(MoveGenerator.hasLegalMove(position) ? '+' : '#');
+        position.unmakeMove(move);
+        return sb.toString();
+    }
+
+    // Legal move matching the UCI text (e.g. "e2e4", "e7e8q"), Move.NONE when there is none
+    public static int parseUci(Position position, String text) {
+        if (text.length() != 4 && text.length() != 5) return Move.NONE;
+        int from = square(text, 0), to = square(text, 2);
+        if (from < 0 || to < 0) return Move.NONE;
+        int promotion = text.length() == 5 ? "nbrq".indexOf(Character.toLowerCase(text.charAt(4))) + 1 : 0;
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegal(position, moves, 0);
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (Move.from(move) == from && Move.to(move) == to && Move.promotionType(move) == promotion) return move;
+        }
+        return Move.NONE;
+    }
+
+    // File, rank or both when another piece of the same type can reach the same square
+    private static void appendDisambiguation(StringBuilder sb, Position position, int move, int type) {
+        int from = Move.from(move), to = Move.to(move);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegal(position, moves, 0);
+        boolean ambiguous = false, sameFile = false, sameRank = false;
+        for (int i = 0; i < count; i++) {
+            int other = Move.from(moves[i]);
+            if (other == from || Move.to(moves[i]) != to || Position.typeOf(position.pieceAt(other)) != type) continue;
+            ambiguous = true;
+            if ((other & 7) == (from & 7)) sameFile = true;
+            if ((other >>> 3) == (from >>> 3)) sameRank = true;
+        }
+        if (!ambiguous) return;
+        if (!sameFile) {
+            sb.append((char) ('a' + (from & 7)));
+        } else if (!sameRank) {
+            sb.append((char) ('1' + (from >>> 3)));
+        } else {
+            appendSquare(sb, from);
+        }
+    }
+
+    private static int square(String text, int index) {
+        int file = text.charAt(index) - 'a', rank = text.charAt(index + 1) - '1';
+        return file < 0 || file > 7 || rank < 0 || rank > 7 ? -1 : rank * 8 + file;
+    }
+
+    private static void appendSquare(StringBuilder sb, int square) {
+        sb.append((char) ('a' + (square & 7))).append((char) ('1' + (square >>> 3)));
+    }
+}
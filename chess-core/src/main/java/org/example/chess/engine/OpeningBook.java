@@ -0,0 +1,166 @@
+package org.example.chess.engine;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+// Opening book in the Polyglot .bin format: 16-byte big-endian entries (key, move, weight, learn) sorted by key.
+// The file is memory-mapped and binary-searched in place, nothing is copied to the heap.
+// Keys are hashed with the Polyglot Random64 table, so books made by other tools are found.
+public final class OpeningBook implements AutoCloseable {
+    private static final int ENTRY_SIZE = 16;
+    private static final int MAX_BOOK_MOVES = 64;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer entries;
+    private final int entryCount;
+
+    private OpeningBook(FileChannel channel, MappedByteBuffer entries) {
+        this.channel = channel;
+        this.entries = entries;
+        this.entryCount = entries.capacity() / ENTRY_SIZE;
+    }
+
+    public static OpeningBook open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size % ENTRY_SIZE != 0 || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a Polyglot book: " + path);
+            }
+            return new OpeningBook(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int size() {
+        return entryCount;
+    }
+
+    // Polyglot hash of the position
+    public static long key(Position position) {
+        long[] random = PolyglotRandom.RANDOM_64;
+        long key = 0L;
+        for (int square = 0; square < 64; square++) {
+            int piece = position.pieceAt(square);
+            if (piece == Position.EMPTY) continue;
+            // Polyglot kinds: black pawn, white pawn, black knight, ... white king
+            int kind = 2 * Position.typeOf(piece) + (Position.colorOf(piece) == Position.WHITE ? 1 : 0);
+            key ^= random[64 * kind + square];
+        }
+        int rights = position.getCastlingRights();
+        if ((rights & Position.WHITE_KINGSIDE) != 0) key ^= random[PolyglotRandom.CASTLING];
+        if ((rights & Position.WHITE_QUEENSIDE) != 0) key ^= random[PolyglotRandom.CASTLING + 1];
+        if ((rights & Position.BLACK_KINGSIDE) != 0) key ^= random[PolyglotRandom.CASTLING + 2];
+        if ((rights & Position.BLACK_QUEENSIDE) != 0) key ^= random[PolyglotRandom.CASTLING + 3];
+        // Polyglot hashes the en passant file only when a pawn stands next to the pushed one; a FEN may
+        // name the square even when nothing can take on it
+        int enPassant = position.getEnPassantSquare();
+        if (enPassant >= 0 && canTakeEnPassant(position, enPassant)) {
+            key ^= random[PolyglotRandom.EN_PASSANT + (enPassant & 7)];
+        }
+        if (position.getSideToMove() == Position.WHITE) key ^= random[PolyglotRandom.TURN];
+        return key;
+    }
+
+    private static boolean canTakeEnPassant(Position position, int enPassant) {
+        int us = position.getSideToMove();
+        int pushed = enPassant + (us == Position.WHITE ? -8 : 8);
+        int file = pushed & 7;
+        return (file > 0 && isPawn(position.pieceAt(pushed - 1), us))
+                || (file < 7 && isPawn(position.pieceAt(pushed + 1), us));
+    }
+
+    private static boolean isPawn(int piece, int color) {
+        return piece != Position.EMPTY && Position.typeOf(piece) == Position.PAWN && Position.colorOf(piece) == color;
+    }
+
+    // Fills moves/weights with the legal book moves of the position, returns their number
+    public int probe(Position position, int[] moves, int[] weights) {
+        long key = key(position);
+        int[] legal = null;
+        int legalCount = 0;
+        int count = 0;
+        for (int index = lowerBound(key); index < entryCount && count < moves.length; index++) {
+            int offset = index * ENTRY_SIZE;
+            if (entries.getLong(offset) != key) break;
+            int weight = entries.getShort(offset + 10) & 0xFFFF;
+            if (weight == 0) continue;
+            if (legal == null) {
+                legal = new int[MoveGenerator.MAX_MOVES];
+                legalCount = MoveGenerator.generateLegal(position, legal, 0);
+            }
+            int move = decode(position, entries.getShort(offset + 8) & 0xFFFF, legal, legalCount);
+            if (move != Move.NONE) {
+                moves[count] = move;
+                weights[count] = weight;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Weighted random book move, NONE when the position is not in the book. weightPower 0 picks uniformly,
+    // 1 in proportion to the weights, higher values favour the main lines more strongly.
+    public int pick(Position position, Random random, int weightPower) {
+        int[] moves = new int[MAX_BOOK_MOVES];
+        int[] weights = new int[MAX_BOOK_MOVES];
+        int count = probe(position, moves, weights);
+        if (count == 0) return Move.NONE;
+        double[] cumulative = new double[count];
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            total += Math.pow(weights[i], weightPower);
+            cumulative[i] = total;
+        }
+        double r = random.nextDouble() * total;
+        for (int i = 0; i < count; i++) {
+            if (r < cumulative[i]) return moves[i];
+        }
+        return moves[count - 1];
+    }
+
+    // First entry whose key is not below key; keys are sorted as unsigned numbers
+    private int lowerBound(long key) {
+        int low = 0, high = entryCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(entries.getLong(mid * ENTRY_SIZE), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Polyglot move: to file/row in bits 0-5, from file/row in bits 6-11, promotion piece in bits 12-14
+    // (1 knight .. 4 queen, the same numbering as Position). Castling is written as the king taking its rook.
+    private static int decode(Position position, int bookMove, int[] legal, int legalCount) {
+        int to = bookMove & 0x3F;
+        int from = (bookMove >>> 6) & 0x3F;
+        int promotion = (bookMove >>> 12) & 0x7;
+        int piece = position.pieceAt(from);
+        if (piece != Position.EMPTY && Position.typeOf(piece) == Position.KING) {
+            if (from == 4 && to == 7) to = 6;
+            else if (from == 4 && to == 0) to = 2;
+            else if (from == 60 && to == 63) to = 62;
+            else if (from == 60 && to == 56) to = 58;
+        }
+        for (int i = 0; i < legalCount; i++) {
+            int move = legal[i];
+            if (Move.from(move) == from && Move.to(move) == to && Move.promotionType(move) == promotion) return move;
+        }
+        return Move.NONE; // Corrupt entry or key collision
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close(); // The mapping itself is released when the buffer is collected
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.chess.engine;
+
+// Small direct-mapped cache of pawn-structure results keyed by Position.getPawnKey().
+// Pawns move rarely compared with the other pieces, so sibling nodes almost always share an entry.
+// Owned by one Evaluator (one per search thread), hence no locking.
+public class PawnHashTable {
+    public static final int DEFAULT_ENTRIES = 16 * 1024;
+
+    // data layout: files without a white pawn (bits 0-7), files without a black pawn (8-15), score (32-63, signed)
+    private static final int SCORE_SHIFT = 32;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+
+    public PawnHashTable(int entries) {
+        int size = Integer.highestOneBit(Math.max(1, entries));
+        keys = new long[size];
+        data = new long[size];
+        mask = size - 1;
+    }
+
+    // Returns the packed entry for the key, or 0 when there is none
+    public long probe(long key) {
+        int index = (int) key & mask;
+        return keys[index] == key ? data[index] : 0L;
+    }
+
+    // Always replaces: the structure in the current line is the one worth keeping
+    public long store(long key, int score, int whiteSemiOpen, int blackSemiOpen) {
+        long entry = ((long) score << SCORE_SHIFT) | ((long) blackSemiOpen << 8) | whiteSemiOpen;
+        int index = (int) key & mask;
+        keys[index] = key;
+        data[index] = entry;
+        return entry;
+    }
+
+    public static int score(long entry) {
+        return (int) (entry >> SCORE_SHIFT);
+    }
+
+    // Bit f is set when the side has no pawn on file f
+    public static int semiOpenFiles(long entry, int color) {
+        return (int) (entry >>> (color == Position.WHITE ? 0 : 8)) & 0xFF;
+    }
+}
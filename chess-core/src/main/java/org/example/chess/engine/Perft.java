@@ -0,0 +1,92 @@
+package org.example.chess.engine;
+
+// Counts the leaf nodes of the legal move tree to a fixed depth and compares them with published reference values.
+// Usage: Perft                      runs the reference suite
+//        Perft <depth> [fen]        prints the node count below every root move (divide), start position by default
+public final class Perft {
+    // FEN, then the expected node counts for depth 1, 2, ...
+    static final String[][] REFERENCE_POSITIONS = {
+            {Position.START_FEN, "20", "400", "8902", "197281", "4865609"},
+            {"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", "48", "2039", "97862", "4085603"},
+            {"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", "14", "191", "2812", "43238", "674624"},
+            {"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", "6", "264", "9467", "422333"},
+            {"rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", "44", "1486", "62379", "2103487"}
+    };
+
+    private final Position position;
+    private final int[][] moveBuffers;
+
+    public Perft(Position position, int maxDepth) {
+        this.position = position;
+        this.moveBuffers = new int[maxDepth + 1][MoveGenerator.MAX_MOVES];
+    }
+
+    public long count(int depth) {
+        if (depth == 0) return 1;
+        int[] moves = moveBuffers[depth];
+        int count = MoveGenerator.generateLegal(position, moves, 0);
+        if (depth == 1) return count; // Bulk counting at the last ply
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            position.makeMove(moves[i]);
+            nodes += count(depth - 1);
+            position.unmakeMove(moves[i]);
+        }
+        return nodes;
+    }
+
+    // Prints "<move>: <nodes>" per root move, returns the total
+    public long divide(int depth) {
+        int[] moves = moveBuffers[depth];
+        int count = MoveGenerator.generateLegal(position, moves, 0);
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            position.makeMove(move);
+            long nodes = count(depth - 1);
+            position.unmakeMove(move);
+            System.out.println(Move.toUci(move) + ": " + nodes);
+            total += nodes;
+        }
+        System.out.println();
+        System.out.println("Moves: " + count);
+        System.out.println("Nodes: " + total);
+        return total;
+    }
+
+    // Returns true when every reference count matches
+    public static boolean runReferenceSuite() {
+        boolean passed = true;
+        long totalNodes = 0;
+        long start = System.nanoTime();
+        for (String[] reference : REFERENCE_POSITIONS) {
+            int maxDepth = reference.length - 1;
+            Perft perft = new Perft(Position.fromFen(reference[0]), maxDepth);
+            boolean positionPassed = true;
+            for (int depth = 1; depth <= maxDepth; depth++) {
+                long expected = Long.parseLong(reference[depth]);
+                long nodes = perft.count(depth);
+                totalNodes += nodes;
+                if (nodes != expected) {
+                    System.out.println("FAIL " + reference[0] + " depth " + depth + ": " + nodes + " (expected " + expected + ")");
+                    positionPassed = false;
+                }
+            }
+            System.out.println((positionPassed ? "ok   " : "FAIL ") + reference[0]);
+            passed &= positionPassed;
+        }
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        System.out.println(totalNodes + " nodes in " + millis + " ms (" + totalNodes * 1000 / millis + " nps)");
+        return passed;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.exit(runReferenceSuite() ? 0 : 1);
+        }
+        int depth = Integer.parseInt(args[0]);
+        if (depth < 1) throw new IllegalArgumentException("Depth must be at least 1");
+        String fen = args.length > 1 ? String.join(" ", java.util.Arrays.copyOfRange(args, 1, args.length)) : Position.START_FEN;
+        new Perft(Position.fromFen(fen), depth).divide(depth);
+    }
+}
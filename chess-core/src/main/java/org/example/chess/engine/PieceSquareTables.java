@@ -0,0 +1,111 @@
+package org.example.chess.engine;
+
+// Material values and piece-square tables, expanded per piece and square for incremental updates in Position.
+// The tables are written from White's side with row 0 = rank 8, as they read on the board.
+public final class PieceSquareTables {
+    private static final int[] PIECE_VALUES = {100, 300, 300, 500, 900, 0}; // Indexed by piece type
+
+    // Piece-square tables for positional evaluation (simplified for brevity)
+    private static final int[][] PAWN_TABLE = {
+            { 0,  0,  0,  0,  0,  0,  0,  0},
+            {50, 50, 50, 50, 50, 50, 50, 50},
+            {10, 10, 20, 30, 30, 20, 10, 10},
+            { 5,  5, 10, 25, 25, 10,  5,  5},
+            { 0,  0,  0, 20, 20,  0,  0,  0},
+            { 5, -5,-10,  0,  0,-10, -5,  5},
+            { 5, 10, 10,-20,-20, 10, 10,  5},
+            { 0,  0,  0,  0,  0,  0,  0,  0}
+    };
+    private static final int[][] KNIGHT_TABLE = {
+            {-50,-40,-30,-30,-30,-30,-40,-50},
+            {-40,-20,  0,  0,  0,  0,-20,-40},
+            {-30,  0, 10, 15, 15, 10,  0,-30},
+            {-30,  5, 15, 20, 20, 15,  5,-30},
+            {-30,  0, 15, 20, 20, 15,  0,-30},
+            {-30,  5, 10, 15, 15, 10,  5,-30},
+            {-40,-20,  0,  5,  5,  0,-20,-40},
+            {-50,-40,-30,-30,-30,-30,-40,-50}
+    };
+    private static final int[][] BISHOP_TABLE = {
+            {-20,-10,-10,-10,-10,-10,-10,-20},
+            {-10,  0,  0,  0,  0,  0,  0,-10},
+            {-10,  0,  5, 10, 10,  5,  0,-10},
+            {-10,  5,  5, 10, 10,  5,  5,-10},
+            {-10,  0, 10, 10, 10, 10,  0,-10},
+            {-10, 10, 10,  5,  5, 10, 10,-10},
+            {-10,  5,  0,  0,  0,  0,  5,-10},
+            {-20,-10,-10,-10,-10,-10,-10,-20}
+    };
+    private static final int[][] ROOK_TABLE = {
+            { 0,  0,  0,  0,  0,  0,  0,  0},
+            { 5, 10, 10, 10, 10, 10, 10,  5},
+            {-5,  0,  0,  0,  0,  0,  0, -5},
+            {-5,  0,  0,  0,  0,  0,  0, -5},
+            {-5,  0,  0,  0,  0,  0,  0, -5},
+            {-5,  0,  0,  0,  0,  0,  0, -5},
+            {-5,  0,  0,  0,  0,  0,  0, -5},
+            { 0,  0,  0,  5,  5,  0,  0,  0}
+    };
+    private static final int[][] QUEEN_TABLE = {
+            {-20,-10,-10, -5, -5,-10,-10,-20},
+            {-10,  0,  0,  0,  0,  0,  0,-10},
+            {-10,  0,  5,  5,  5,  5,  0,-10},
+            { -5,  0,  5,  5,  5,  5,  0, -5},
+            {  0,  0,  5,  5,  5,  5,  0, -5},
+            {-10,  5,  5,  5,  5,  5,  0,-10},
+            {-10,  0,  5,  0,  0,  0,  0,-10},
+            {-20,-10,-10, -5, -5,-10,-10,-20}
+    };
+    private static final int[][] KING_MIDDLE_TABLE = {
+            {-30,-40,-40,-50,-50,-40,-40,-30},
+            {-30,-40,-40,-50,-50,-40,-40,-30},
+            {-30,-40,-40,-50,-50,-40,-40,-30},
+            {-30,-40,-40,-50,-50,-40,-40,-30},
+            {-20,-30,-30,-40,-40,-30,-30,-20},
+            {-10,-20,-20,-20,-20,-20,-20,-10},
+            { 20, 20,  0,  0,  0,  0, 20, 20},
+            { 20, 30, 10,  0,  0, 10, 30, 20}
+    };
+    private static final int[][] KING_END_TABLE = {
+            {-50,-40,-30,-20,-20,-30,-40,-50},
+            {-30,-20,-10,  0,  0,-10,-20,-30},
+            {-30,-10, 20, 30, 30, 20,-10,-30},
+            {-30,-10, 30, 40, 40, 30,-10,-30},
+            {-30,-10, 30, 40, 40, 30,-10,-30},
+            {-30,-10, 20, 30, 30, 20,-10,-30},
+            {-30,-30,  0,  0,  0,  0,-30,-30},
+            {-50,-30,-30,-30,-30,-30,-30,-50}
+    };
+
+    private static final int[][] MIDDLE = new int[12][64];
+    private static final int[][] END = new int[12][64];
+
+    static {
+        int[][][] tables = {PAWN_TABLE, KNIGHT_TABLE, BISHOP_TABLE, ROOK_TABLE, QUEEN_TABLE, KING_MIDDLE_TABLE};
+        for (int piece = 0; piece < 12; piece++) {
+            int type = Position.typeOf(piece);
+            for (int square = 0; square < 64; square++) {
+                int rank = square >>> 3, file = square & 7;
+                int row = Position.colorOf(piece) == Position.WHITE ? 7 - rank : rank; // Mirror for Black
+                MIDDLE[piece][square] = tables[type][row][file];
+                END[piece][square] = type == Position.KING ? KING_END_TABLE[row][file] : tables[type][row][file];
+            }
+        }
+    }
+
+    private PieceSquareTables() {
+    }
+
+    public static int pieceValue(int type) {
+        return PIECE_VALUES[type];
+    }
+
+    public static int middle(int piece, int square) {
+        return MIDDLE[piece][square];
+    }
+
+    // Same as middle() except for the king, which heads for the centre in the endgame
+    public static int end(int piece, int square) {
+        return END[piece][square];
+    }
+}
@@ -0,0 +1,479 @@
+package org.example.chess.engine;
+
+import java.util.Arrays;
+
+// Bitboard model of a chess position. Squares are numbered a1 = 0 .. h8 = 63,
+// the GridPane coordinates (row 0 = rank 8) are converted with square(row, col).
+public class Position {
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+
+    public static final int EMPTY = -1;
+
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String[] TYPE_NAMES = {"pawn", "knight", "bishop", "rook", "queen", "king"};
+    private static final String PIECE_CHARS = "PNBRQKpnbrqk";
+    private static final int INITIAL_HISTORY = 512;
+
+    private final long[] pieces = new long[12]; // One bitboard per colour and piece type
+    private final long[] occupancy = new long[2];
+    private long allOccupancy;
+    private final int[] squares = new int[64]; // Mailbox for piece-on-square lookups
+    private final int[] kingSquares = new int[2];
+    private int sideToMove;
+    private int castlingRights;
+    private int enPassantSquare;
+    private int halfmoveClock;
+    private int fullmoveNumber;
+    private long key; // Zobrist key, updated incrementally
+    private long pawnKey; // Zobrist key of the pawns alone, for the pawn hash table
+    // Evaluation terms kept up to date by put/remove, per colour
+    private final int[] material = new int[2];
+    private final int[] middleScore = new int[2];
+    private final int[] endScore = new int[2];
+
+    // Undo stack, one entry per made move (game moves included, so it doubles as the key history)
+    private int[] undoCaptured = new int[INITIAL_HISTORY];
+    private int[] undoCastling = new int[INITIAL_HISTORY];
+    private int[] undoEnPassant = new int[INITIAL_HISTORY];
+    private int[] undoHalfmove = new int[INITIAL_HISTORY];
+    private long[] undoKey = new long[INITIAL_HISTORY];
+    private int historySize;
+
+    public Position() {
+        clear();
+    }
+
+    public static Position fromFen(String fen) {
+        Position position = new Position();
+        position.load(fen);
+        return position;
+    }
+
+    public void clear() {
+        Arrays.fill(pieces, 0L);
+        occupancy[WHITE] = 0L;
+        occupancy[BLACK] = 0L;
+        allOccupancy = 0L;
+        Arrays.fill(squares, EMPTY);
+        kingSquares[WHITE] = -1;
+        kingSquares[BLACK] = -1;
+        Arrays.fill(material, 0);
+        Arrays.fill(middleScore, 0);
+        Arrays.fill(endScore, 0);
+        sideToMove = WHITE;
+        castlingRights = 0;
+        enPassantSquare = -1;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        historySize = 0;
+        pawnKey = 0L;
+        key = Zobrist.compute(this);
+    }
+
+    public void load(String fen) {
+        clear();
+        String[] parts = fen.trim().split("\\s+");
+        int rank = 7, file = 0;
+        for (char c : parts[0].toCharArray()) {
+            if (c == '/') {
+                rank--;
+                file = 0;
+            } else if (Character.isDigit(c)) {
+                file += c - '0';
+            } else {
+                int piece = PIECE_CHARS.indexOf(c);
+                if (piece < 0) throw new IllegalArgumentException("Invalid FEN piece: " + c);
+                put(rank * 8 + file, piece);
+                file++;
+            }
+        }
+        sideToMove = parts.length > 1 && parts[1].equals("b") ? BLACK : WHITE;
+        if (parts.length > 2) {
+            for (char c : parts[2].toCharArray()) {
+                switch (c) {
+                    case 'K' -> castlingRights |= WHITE_KINGSIDE;
+                    case 'Q' -> castlingRights |= WHITE_QUEENSIDE;
+                    case 'k' -> castlingRights |= BLACK_KINGSIDE;
+                    case 'q' -> castlingRights |= BLACK_QUEENSIDE;
+                    default -> { }
+                }
+            }
+        }
+        if (parts.length > 3 && !parts[3].equals("-")) {
+            enPassantSquare = (parts[3].charAt(1) - '1') * 8 + (parts[3].charAt(0) - 'a');
+        }
+        if (parts.length > 4) halfmoveClock = Integer.parseInt(parts[4]);
+        if (parts.length > 5) fullmoveNumber = Integer.parseInt(parts[5]);
+        key = Zobrist.compute(this);
+    }
+
+    public Position copy() {
+        Position copy = new Position();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    // Becomes a copy of source, reusing this position's arrays (a search copies the game position each move)
+    public void copyFrom(Position source) {
+        System.arraycopy(source.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(source.occupancy, 0, occupancy, 0, occupancy.length);
+        System.arraycopy(source.squares, 0, squares, 0, squares.length);
+        System.arraycopy(source.kingSquares, 0, kingSquares, 0, kingSquares.length);
+        System.arraycopy(source.material, 0, material, 0, 2);
+        System.arraycopy(source.middleScore, 0, middleScore, 0, 2);
+        System.arraycopy(source.endScore, 0, endScore, 0, 2);
+        allOccupancy = source.allOccupancy;
+        sideToMove = source.sideToMove;
+        castlingRights = source.castlingRights;
+        enPassantSquare = source.enPassantSquare;
+        halfmoveClock = source.halfmoveClock;
+        fullmoveNumber = source.fullmoveNumber;
+        key = source.key;
+        pawnKey = source.pawnKey;
+        ensureHistoryCapacity(source.historySize);
+        System.arraycopy(source.undoCaptured, 0, undoCaptured, 0, source.historySize);
+        System.arraycopy(source.undoCastling, 0, undoCastling, 0, source.historySize);
+        System.arraycopy(source.undoEnPassant, 0, undoEnPassant, 0, source.historySize);
+        System.arraycopy(source.undoHalfmove, 0, undoHalfmove, 0, source.historySize);
+        System.arraycopy(source.undoKey, 0, undoKey, 0, source.historySize);
+        historySize = source.historySize;
+    }
+
+    public void put(int square, int piece) {
+        if (squares[square] != EMPTY) remove(square);
+        long bit = 1L << square;
+        pieces[piece] |= bit;
+        occupancy[colorOf(piece)] |= bit;
+        allOccupancy |= bit;
+        squares[square] = piece;
+        key ^= Zobrist.piece(piece, square);
+        if (typeOf(piece) == PAWN) pawnKey ^= Zobrist.piece(piece, square);
+        int color = colorOf(piece);
+        material[color] += PieceSquareTables.pieceValue(typeOf(piece));
+        middleScore[color] += PieceSquareTables.middle(piece, square);
+        endScore[color] += PieceSquareTables.end(piece, square);
+        if (typeOf(piece) == KING) kingSquares[color] = square;
+    }
+
+    public int remove(int square) {
+        int piece = squares[square];
+        if (piece == EMPTY) return EMPTY;
+        long bit = ~(1L << square);
+        pieces[piece] &= bit;
+        occupancy[colorOf(piece)] &= bit;
+        allOccupancy &= bit;
+        squares[square] = EMPTY;
+        key ^= Zobrist.piece(piece, square);
+        if (typeOf(piece) == PAWN) pawnKey ^= Zobrist.piece(piece, square);
+        int color = colorOf(piece);
+        material[color] -= PieceSquareTables.pieceValue(typeOf(piece));
+        middleScore[color] -= PieceSquareTables.middle(piece, square);
+        endScore[color] -= PieceSquareTables.end(piece, square);
+        if (typeOf(piece) == KING && kingSquares[color] == square) kingSquares[color] = -1;
+        return piece;
+    }
+
+    // Plays a move of the real game (coming from the GridPane), including castling and en passant.
+    // Promotions are applied afterwards by the view through put().
+    public void movePiece(int from, int to) {
+        int piece = squares[from];
+        if (piece == EMPTY) return;
+        int type = typeOf(piece);
+        int flags = squares[to] != EMPTY ? Move.CAPTURE : 0;
+        if (type == KING && Math.abs(to - from) == 2) {
+            flags = Move.CASTLING;
+        } else if (type == PAWN && to == enPassantSquare) {
+            flags = Move.EN_PASSANT;
+        } else if (type == PAWN && Math.abs(to - from) == 16) {
+            flags = Move.DOUBLE_PUSH;
+        }
+        makeMove(Move.of(from, to, flags));
+    }
+
+    public void makeMove(int move) {
+        int from = Move.from(move), to = Move.to(move);
+        int piece = squares[from];
+        int us = sideToMove;
+
+        ensureHistoryCapacity(historySize + 1);
+        undoCastling[historySize] = castlingRights;
+        undoEnPassant[historySize] = enPassantSquare;
+        undoHalfmove[historySize] = halfmoveClock;
+        undoKey[historySize] = key;
+
+        int captured = EMPTY;
+        if (Move.isEnPassant(move)) {
+            captured = remove(to + (us == WHITE ? -8 : 8));
+        } else if (squares[to] != EMPTY) {
+            captured = remove(to);
+        }
+        undoCaptured[historySize++] = captured;
+
+        remove(from);
+        put(to, Move.isPromotion(move) ? piece(us, Move.promotionType(move)) : piece);
+        if (Move.isCastling(move)) {
+            put(to > from ? from + 1 : from - 1, remove(to > from ? from + 3 : from - 4));
+        }
+
+        key ^= Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantSquare);
+        castlingRights &= castlingMask(from) & castlingMask(to);
+        enPassantSquare = -1;
+        if (Move.isDoublePush(move) && (adjacentSquares(to) & pieces(1 - us, PAWN)) != 0) {
+            enPassantSquare = (from + to) / 2; // Only recorded when it can be captured, so repetitions compare correctly
+        }
+        key ^= Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantSquare) ^ Zobrist.sideToMove();
+        halfmoveClock = typeOf(piece) == PAWN || captured != EMPTY ? 0 : halfmoveClock + 1;
+        if (us == BLACK) fullmoveNumber++;
+        sideToMove = 1 - us;
+    }
+
+    public void unmakeMove(int move) {
+        int from = Move.from(move), to = Move.to(move);
+        int us = 1 - sideToMove;
+        historySize--;
+
+        int piece = remove(to);
+        put(from, Move.isPromotion(move) ? piece(us, PAWN) : piece);
+        if (Move.isCastling(move)) {
+            put(to > from ? from + 3 : from - 4, remove(to > from ? from + 1 : from - 1));
+        }
+        int captured = undoCaptured[historySize];
+        if (captured != EMPTY) {
+            put(Move.isEnPassant(move) ? to + (us == WHITE ? -8 : 8) : to, captured);
+        }
+
+        castlingRights = undoCastling[historySize];
+        enPassantSquare = undoEnPassant[historySize];
+        halfmoveClock = undoHalfmove[historySize];
+        key = undoKey[historySize];
+        if (us == BLACK) fullmoveNumber--;
+        sideToMove = us;
+    }
+
+    // Piece captured by the last made move, EMPTY if it was quiet
+    public int lastCaptured() {
+        return historySize == 0 ? EMPTY : undoCaptured[historySize - 1];
+    }
+
+    // Passes the turn (null-move pruning). The halfmove clock restarts so repetition checks never look across it.
+    public void makeNullMove() {
+        ensureHistoryCapacity(historySize + 1);
+        undoCastling[historySize] = castlingRights;
+        undoEnPassant[historySize] = enPassantSquare;
+        undoHalfmove[historySize] = halfmoveClock;
+        undoKey[historySize] = key;
+        undoCaptured[historySize++] = EMPTY;
+
+        key ^= Zobrist.enPassant(enPassantSquare) ^ Zobrist.sideToMove();
+        enPassantSquare = -1;
+        halfmoveClock = 0;
+        sideToMove = 1 - sideToMove;
+    }
+
+    public void unmakeNullMove() {
+        historySize--;
+        enPassantSquare = undoEnPassant[historySize];
+        halfmoveClock = undoHalfmove[historySize];
+        key = undoKey[historySize];
+        sideToMove = 1 - sideToMove;
+    }
+
+    // Number of earlier positions (within the halfmove clock window) identical to the current one
+    public int repetitionCount() {
+        int count = 0;
+        int oldest = Math.max(0, historySize - halfmoveClock);
+        for (int i = historySize - 2; i >= oldest; i -= 2) {
+            if (undoKey[i] == key) count++;
+        }
+        return count;
+    }
+
+    private void ensureHistoryCapacity(int size) {
+        if (size <= undoKey.length) return;
+        int capacity = Math.max(size, undoKey.length * 2);
+        undoCaptured = Arrays.copyOf(undoCaptured, capacity);
+        undoCastling = Arrays.copyOf(undoCastling, capacity);
+        undoEnPassant = Arrays.copyOf(undoEnPassant, capacity);
+        undoHalfmove = Arrays.copyOf(undoHalfmove, capacity);
+        undoKey = Arrays.copyOf(undoKey, capacity);
+    }
+
+    private static long adjacentSquares(int square) {
+        long bit = 1L << square;
+        return ((bit << 1) & ~Bitboards.FILE_A) | ((bit >>> 1) & ~Bitboards.FILE_H);
+    }
+
+    private static int castlingMask(int square) {
+        return switch (square) {
+            case 0 -> ~WHITE_QUEENSIDE;
+            case 4 -> ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+            case 7 -> ~WHITE_KINGSIDE;
+            case 56 -> ~BLACK_QUEENSIDE;
+            case 60 -> ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+            case 63 -> ~BLACK_KINGSIDE;
+            default -> ~0;
+        };
+    }
+
+    public int pieceAt(int square) {
+        return squares[square];
+    }
+
+    public long pieces(int color, int type) {
+        return pieces[piece(color, type)];
+    }
+
+    public long pieces(int piece) {
+        return pieces[piece];
+    }
+
+    public long occupancy(int color) {
+        return occupancy[color];
+    }
+
+    public long occupancy() {
+        return allOccupancy;
+    }
+
+    public int kingSquare(int color) {
+        return kingSquares[color];
+    }
+
+    // Anything besides pawns and the king; null-move pruning is unsafe without it (zugzwang)
+    public boolean hasNonPawnMaterial(int color) {
+        return (occupancy[color] & ~pieces[piece(color, PAWN)] & ~pieces[piece(color, KING)]) != 0;
+    }
+
+    // Bare kings, or a lone bishop or knight against a bare king: no sequence of moves can mate
+    public boolean isInsufficientMaterial() {
+        long others = allOccupancy & ~(pieces[piece(WHITE, KING)] | pieces[piece(BLACK, KING)]);
+        if (others == 0) return true;
+        if (Long.bitCount(others) > 1) return false;
+        long minors = pieces[piece(WHITE, KNIGHT)] | pieces[piece(BLACK, KNIGHT)]
+                | pieces[piece(WHITE, BISHOP)] | pieces[piece(BLACK, BISHOP)];
+        return (others & minors) != 0;
+    }
+
+    public int material(int color) {
+        return material[color];
+    }
+
+    // Piece-square total for the colour, using the endgame king table when endgame is set
+    public int pieceSquareScore(int color, boolean endgame) {
+        return endgame ? endScore[color] : middleScore[color];
+    }
+
+    public boolean isSquareAttacked(int square, int byColor) {
+        int offset = byColor * 6;
+        long queens = pieces[offset + QUEEN];
+        return (Attacks.pawn(1 - byColor, square) & pieces[offset + PAWN]) != 0
+                || (Attacks.knight(square) & pieces[offset + KNIGHT]) != 0
+                || (Attacks.king(square) & pieces[offset + KING]) != 0
+                || (Attacks.bishop(square, allOccupancy) & (pieces[offset + BISHOP] | queens)) != 0
+                || (Attacks.rook(square, allOccupancy) & (pieces[offset + ROOK] | queens)) != 0;
+    }
+
+    // Pieces of both colours attacking the square, with sliders seen through the given occupancy
+    // (pieces already removed from occupied let the sliders behind them through)
+    public long attackersTo(int square, long occupied) {
+        long diagonal = pieces[BISHOP] | pieces[QUEEN] | pieces[6 + BISHOP] | pieces[6 + QUEEN];
+        long straight = pieces[ROOK] | pieces[QUEEN] | pieces[6 + ROOK] | pieces[6 + QUEEN];
+        return (Attacks.pawn(BLACK, square) & pieces[PAWN])
+                | (Attacks.pawn(WHITE, square) & pieces[6 + PAWN])
+                | (Attacks.knight(square) & (pieces[KNIGHT] | pieces[6 + KNIGHT]))
+                | (Attacks.king(square) & (pieces[KING] | pieces[6 + KING]))
+                | (Attacks.bishop(square, occupied) & diagonal)
+                | (Attacks.rook(square, occupied) & straight);
+    }
+
+    public boolean isInCheck(int color) {
+        int king = kingSquares[color];
+        return king >= 0 && isSquareAttacked(king, 1 - color);
+    }
+
+    public boolean isInCheck() {
+        return isInCheck(sideToMove);
+    }
+
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    public void setSideToMove(int sideToMove) {
+        if (this.sideToMove != sideToMove) key ^= Zobrist.sideToMove();
+        this.sideToMove = sideToMove;
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    public long getPawnKey() {
+        return pawnKey;
+    }
+
+    public static int piece(int color, int type) {
+        return color * 6 + type;
+    }
+
+    public static int colorOf(int piece) {
+        return piece / 6;
+    }
+
+    public static int typeOf(int piece) {
+        return piece % 6;
+    }
+
+    public static int typeOf(String name) {
+        for (int type = PAWN; type <= KING; type++) {
+            if (TYPE_NAMES[type].equals(name)) return type;
+        }
+        throw new IllegalArgumentException("Unknown piece type: " + name);
+    }
+
+    public static String typeName(int type) {
+        return TYPE_NAMES[type];
+    }
+
+    public static int square(int row, int col) {
+        return (7 - row) * 8 + col;
+    }
+
+    public static int row(int square) {
+        return 7 - (square >>> 3);
+    }
+
+    public static int col(int square) {
+        return square & 7;
+    }
+}
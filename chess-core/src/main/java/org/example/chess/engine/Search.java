@@ -0,0 +1,557 @@
+package org.example.chess.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+
+// Alpha-beta search (negamax) over a private copy of the game position.
+// Several instances may run at once on different threads and share one TranspositionTable (Lazy SMP):
+// they only cooperate through the table entries, and all stop when the shared flag is raised.
+public class Search {
+    public static final int MAX_PLY = 64;
+    public static final int MATE_SCORE = 100000;
+    public static final int INFINITY = 1000000;
+    private static final int DELTA_MARGIN = 200; // Positional swing allowed on top of the captured material
+    private static final int CHECK_INTERVAL = 1023; // Nodes between two looks at the stop flag and the clock
+    private static final int ASPIRATION_WINDOW = 50;
+    private static final int ASPIRATION_DEPTH = 4; // Shallower iterations are cheap and their scores swing too much
+    // Ordering score ranges: good captures above killers above quiet moves (history stays below HISTORY_LIMIT)
+    // above losing captures
+    private static final int CAPTURE_SCORE = 300000;
+    private static final int KILLER_SCORE = 200000;
+    private static final int BAD_CAPTURE_SCORE = -300000;
+    private static final int HISTORY_LIMIT = 100000;
+    // Selective search
+    private static final int FUTILITY_DEPTH = 3;
+    private static final int FUTILITY_MARGIN = 120; // Per ply of remaining depth
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    private static final int LMR_MIN_DEPTH = 3;
+    private static final int LMR_MIN_MOVES = 3; // The first moves in the ordering are always searched to full depth
+    private static final int[][] LMR_REDUCTIONS = new int[64][64];
+
+    static {
+        for (int depth = 1; depth < 64; depth++) {
+            for (int moves = 1; moves < 64; moves++) {
+                LMR_REDUCTIONS[depth][moves] = (int) (0.75 + Math.log(depth) * Math.log(moves) / 2.25);
+            }
+        }
+    }
+
+    private final TranspositionTable transpositionTable;
+    private final Evaluator evaluator = new Evaluator();
+    private final StaticExchange staticExchange = new StaticExchange();
+    private final int[][] moveBuffers = new int[MAX_PLY][MoveGenerator.MAX_MOVES]; // One reusable move list per ply
+    private final int[][] scoreBuffers = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+    private final int[] rootMoves = new int[MoveGenerator.MAX_MOVES];
+    private int rootCount;
+    private int rootBestMove;
+    private final int[][] pvTable = new int[MAX_PLY][MAX_PLY]; // Triangular: row ply holds the line from that ply on
+    private final int[] pvLength = new int[MAX_PLY];
+    private final int[] previousPv = new int[MAX_PLY];
+    private int previousPvLength;
+    private boolean followPv;
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[][][] history = new int[2][64][64]; // Butterfly table: side, from, to
+    private final Position position = new Position(); // Private copy of the game position, reused every search
+    private AtomicBoolean stop = new AtomicBoolean();
+    private TimeManager timeManager; // null when only the stop flag or the depth ends the search
+    private Tablebases tablebases; // null without endgame tables
+    private final int[] tablebaseSquares = new int[Tablebases.MAX_PIECES]; // Probe scratch
+    private long nodeLimit; // 0 for no limit
+    private IntConsumer iterationListener; // Told the depth of each finished iteration, null when nobody listens
+    private boolean stopped;
+    private long nodes;
+    private int bestScore;
+
+    public Search(TranspositionTable transpositionTable) {
+        this.transpositionTable = transpositionTable;
+    }
+
+    // Takes a private copy, so the game position is never touched while the search runs
+    public void setPosition(Position source) {
+        position.copyFrom(source);
+        nodes = 0;
+        rootCount = MoveGenerator.generateLegal(position, rootMoves, 0);
+    }
+
+    public void setStop(AtomicBoolean stop) {
+        this.stop = stop;
+    }
+
+    public void setTimeManager(TimeManager timeManager) {
+        this.timeManager = timeManager;
+    }
+
+    public void setTablebases(Tablebases tablebases) {
+        this.tablebases = tablebases;
+    }
+
+    // Stops after about this many nodes (checked with the stop flag), 0 for no limit
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    public void setIterationListener(IntConsumer iterationListener) {
+        this.iterationListener = iterationListener;
+    }
+
+    // Deepens from startDepth to maxDepth; returns the best move of the deepest iteration that produced one.
+    // From ASPIRATION_DEPTH on, each iteration starts with a narrow window around the previous score and
+    // widens it on the failing side until the score falls inside.
+    public int iterativeDeepening(int startDepth, int maxDepth) {
+        stopped = false;
+        nodes = 0;
+        previousPvLength = 0;
+        for (int[] plyKillers : killers) {
+            Arrays.fill(plyKillers, Move.NONE);
+        }
+        ageHistory(); // Keep what the previous search learned, at half weight
+        int bestMove = Move.NONE;
+        int score = 0;
+        for (int depth = startDepth; depth <= maxDepth && !stopped; depth++) {
+            int delta = ASPIRATION_WINDOW;
+            int alpha = -INFINITY, beta = INFINITY;
+            if (depth >= ASPIRATION_DEPTH && Math.abs(score) < MATE_SCORE - MAX_PLY) {
+                alpha = score - delta;
+                beta = score + delta;
+            }
+            while (true) {
+                followPv = true;
+                int eval = searchRoot(depth, alpha, beta);
+                // A move that raised alpha beats every move searched before it, even if the iteration is cut short
+                if (rootBestMove != Move.NONE) {
+                    bestMove = rootBestMove;
+                }
+                if (stopped) break;
+                delta *= 2;
+                if (eval <= alpha) {
+                    alpha = Math.max(eval - delta, -INFINITY);
+                } else if (eval >= beta) {
+                    beta = Math.min(eval + delta, INFINITY);
+                } else {
+                    score = eval;
+                    bestScore = eval;
+                    // The finished line orders the next iteration
+                    previousPvLength = pvLength[0];
+                    System.arraycopy(pvTable[0], 0, previousPv, 0, previousPvLength);
+                    break;
+                }
+            }
+            if (!stopped && iterationListener != null) {
+                iterationListener.accept(depth);
+            }
+            if (timeManager != null && !stopped && (rootCount == 1 || timeManager.iterationFinished(bestMove, score))) {
+                break; // A forced move, or the next iteration would not pay for its time
+            }
+        }
+        return bestMove;
+    }
+
+    // Principal variation search over the root moves, rootBestMove is set when a move raises alpha
+    private int searchRoot(int depth, int alpha, int beta) {
+        pvLength[0] = 0;
+        int[] rootScores = scoreBuffers[0];
+        scoreMoves(rootMoves, rootCount, 0, probeMove(), pvMove(0));
+        int alphaOriginal = alpha;
+        int bestEval = -INFINITY;
+        rootBestMove = Move.NONE;
+
+        for (int i = 0; i < rootCount; i++) {
+            int move = pickMove(rootMoves, rootScores, i, rootCount);
+            position.makeMove(move);
+            int eval;
+            if (i == 0) {
+                eval = -negamax(depth - 1, 1, -beta, -alpha, true);
+            } else {
+                eval = -negamax(depth - 1, 1, -alpha - 1, -alpha, true);
+                if (eval > alpha && eval < beta) {
+                    eval = -negamax(depth - 1, 1, -beta, -alpha, true);
+                }
+            }
+            position.unmakeMove(move);
+            if (stopped) {
+                return bestEval; // The interrupted move has no valid score, the partial result is not stored
+            }
+            followPv = false;
+
+            if (eval > bestEval) {
+                bestEval = eval;
+            }
+            if (eval > alpha) {
+                alpha = eval;
+                rootBestMove = move;
+                updatePv(0, move);
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+        if (rootBestMove != Move.NONE) {
+            int bound = bestEval >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+            transpositionTable.store(position.getKey(), rootBestMove, depth, bound, bestEval);
+        } else if (alphaOriginal > -INFINITY) {
+            transpositionTable.store(position.getKey(), Move.NONE, depth, TranspositionTable.UPPER_BOUND, bestEval);
+        }
+        return bestEval;
+    }
+
+    // Scores are from the side to move's point of view. Outside the principal variation the tree is cut
+    // selectively: reverse futility and null-move pruning before the move loop, futility pruning and
+    // late move reductions inside it.
+    private int negamax(int depth, int ply, int alpha, int beta, boolean allowNullMove) {
+        pvLength[ply] = ply;
+        if (checkStop()) {
+            return 0;
+        }
+        if (position.repetitionCount() > 0 || position.getHalfmoveClock() >= 100) {
+            return 0; // Draw
+        }
+        if (tablebases != null && Long.bitCount(position.occupancy()) <= Tablebases.MAX_PIECES) {
+            int score = tablebases.probeScore(position, ply, tablebaseSquares);
+            if (score != Tablebases.UNKNOWN) return score; // Exact, no need to search below
+        }
+
+        long key = position.getKey();
+        long entry = transpositionTable.probe(key);
+        int ttMove = Move.NONE;
+        if (entry != 0) {
+            ttMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int score = scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        boolean inCheck = position.isInCheck();
+        if (depth == 0 || ply == MAX_PLY - 1) {
+            // Only mates are looked for at the horizon, a stalemate there is left to the evaluation
+            if (inCheck && !MoveGenerator.hasLegalMove(position)) return -MATE_SCORE + ply;
+            return quiescence(ply, alpha, beta); // Resolve pending captures before evaluating
+        }
+
+        int[] validMoves = moveBuffers[ply];
+        int count = MoveGenerator.generateLegal(position, validMoves, 0);
+        if (count == 0) {
+            if (!inCheck) return 0; // Stalemate
+            return -MATE_SCORE + ply; // Side to move is checkmated
+        }
+
+        boolean pvNode = beta - alpha > 1;
+        boolean prune = !pvNode && !inCheck && Math.abs(beta) < MATE_SCORE - MAX_PLY;
+        int staticEval = prune ? evaluate() : 0;
+
+        // Reverse futility: near the leaves, a static score this far above beta will not come back down
+        if (prune && depth <= FUTILITY_DEPTH && staticEval - FUTILITY_MARGIN * depth >= beta) {
+            return staticEval;
+        }
+
+        // Null move: if passing the turn still fails high, a real move will too. Skipped in pawn-only
+        // endings where zugzwang makes passing better than any move.
+        int us = position.getSideToMove();
+        if (prune && allowNullMove && depth >= NULL_MOVE_MIN_DEPTH && staticEval >= beta
+                && position.hasNonPawnMaterial(us)) {
+            int reduction = depth > 6 ? 3 : 2;
+            position.makeNullMove();
+            int eval = -negamax(Math.max(0, depth - 1 - reduction), ply + 1, -beta, -beta + 1, false);
+            position.unmakeNullMove();
+            if (stopped) {
+                return 0;
+            }
+            if (eval >= beta) {
+                return eval >= MATE_SCORE - MAX_PLY ? beta : eval; // Mates found after a pass are not proven
+            }
+        }
+
+        // Futility: at the frontier, quiet moves cannot lift a score this far below alpha
+        boolean futile = prune && depth <= FUTILITY_DEPTH && staticEval + FUTILITY_MARGIN * depth <= alpha;
+
+        // Move ordering: every move is scored, but only picked in order as the loop reaches it,
+        // so a cutoff on an early move leaves the rest of the list unsorted
+        int pvMove = pvMove(ply);
+        int[] scores = scoreBuffers[ply];
+        scoreMoves(validMoves, count, ply, ttMove, pvMove);
+
+        int alphaOriginal = alpha;
+        int bestEval = -INFINITY;
+        int bestMove = Move.NONE;
+        for (int i = 0; i < count; i++) {
+            int move = pickMove(validMoves, scores, i, count);
+            if (i == 0 && move != pvMove) {
+                followPv = false; // Left the previous principal variation
+            }
+            boolean quiet = !Move.isCapture(move) && !Move.isPromotion(move);
+            position.makeMove(move);
+            boolean givesCheck = position.isInCheck();
+            if (futile && quiet && !givesCheck && i > 0) {
+                position.unmakeMove(move);
+                continue;
+            }
+            int eval;
+            if (i == 0) {
+                eval = -negamax(depth - 1, ply + 1, -beta, -alpha, true);
+            } else {
+                // Late quiet moves are searched shallower first, the ordering says they are unlikely to matter
+                int reduction = 0;
+                if (depth >= LMR_MIN_DEPTH && i >= LMR_MIN_MOVES && quiet && !inCheck && !givesCheck) {
+                    reduction = LMR_REDUCTIONS[Math.min(depth, 63)][Math.min(i, 63)];
+                    if (pvNode) reduction--;
+                    reduction = Math.max(0, Math.min(reduction, depth - 2));
+                }
+                // Null window: only prove the move is no better than alpha, re-search if it is
+                eval = -negamax(depth - 1 - reduction, ply + 1, -alpha - 1, -alpha, true);
+                if (eval > alpha && reduction > 0) {
+                    eval = -negamax(depth - 1, ply + 1, -alpha - 1, -alpha, true);
+                }
+                if (eval > alpha && eval < beta) {
+                    eval = -negamax(depth - 1, ply + 1, -beta, -alpha, true);
+                }
+            }
+            position.unmakeMove(move);
+            if (stopped) {
+                return 0;
+            }
+            followPv = false;
+
+            if (eval > bestEval) {
+                bestEval = eval;
+                bestMove = move;
+            }
+            if (eval > alpha) {
+                alpha = eval;
+                updatePv(ply, move);
+            }
+            if (alpha >= beta) {
+                if (!Move.isCapture(move) && !Move.isPromotion(move)) {
+                    recordCutoff(move, depth, ply);
+                }
+                break;
+            }
+        }
+
+        int bound = bestEval <= alphaOriginal ? TranspositionTable.UPPER_BOUND
+                : bestEval >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+        transpositionTable.store(key, bestMove, depth, bound, scoreToTable(bestEval, ply));
+        return bestEval;
+    }
+
+    // Captures and promotions only, the side to move may stand pat on the static evaluation
+    private int quiescence(int ply, int alpha, int beta) {
+        if (checkStop()) {
+            return 0;
+        }
+        int standPat = evaluate(alpha, beta);
+        if (standPat >= beta || ply >= MAX_PLY - 1) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        int[] captures = moveBuffers[ply];
+        int[] scores = scoreBuffers[ply];
+        int count = MoveGenerator.generateCaptures(position, captures, 0);
+        scoreCaptures(captures, count, ply);
+
+        int us = position.getSideToMove();
+        for (int i = 0; i < count; i++) {
+            int move = pickMove(captures, scores, i, count);
+            // Delta pruning: even winning the captured piece outright cannot lift the score to alpha
+            if (!Move.isPromotion(move) && standPat + capturedValue(move) + DELTA_MARGIN <= alpha) {
+                continue;
+            }
+            // Captures that lose material on the exchange cannot improve on standing pat
+            if (staticExchange.isLosing(position, move)) {
+                continue;
+            }
+            position.makeMove(move);
+            if (position.isInCheck(us)) {
+                position.unmakeMove(move);
+                continue; // Illegal
+            }
+            int eval = -quiescence(ply + 1, -beta, -alpha);
+            position.unmakeMove(move);
+            if (stopped) {
+                return 0;
+            }
+
+            if (eval >= beta) {
+                return eval;
+            }
+            if (eval > alpha) {
+                alpha = eval;
+            }
+        }
+        return alpha;
+    }
+
+    // Counts the node; every CHECK_INTERVAL nodes also looks at the shared flag, the hard time limit
+    // and the node limit
+    private boolean checkStop() {
+        if ((++nodes & CHECK_INTERVAL) == 0 && (stop.get() || (nodeLimit > 0 && nodes >= nodeLimit)
+                || (timeManager != null && timeManager.hardLimitReached()))) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    private int evaluate() {
+        int score = evaluator.evaluate(position); // Black's point of view
+        return position.getSideToMove() == Position.BLACK ? score : -score;
+    }
+
+    // Lazy: outside [alpha, beta] by a wide margin the score is only a rough bound
+    private int evaluate(int alpha, int beta) {
+        if (position.getSideToMove() == Position.BLACK) return evaluator.evaluate(position, alpha, beta);
+        return -evaluator.evaluate(position, -beta, -alpha);
+    }
+
+    private int capturedValue(int move) {
+        if (Move.isEnPassant(move)) return PieceSquareTables.pieceValue(Position.PAWN);
+        int captured = position.pieceAt(Move.to(move));
+        return captured == Position.EMPTY ? 0 : PieceSquareTables.pieceValue(Position.typeOf(captured));
+    }
+
+    // Move of the previous iteration's principal variation at this ply, while the search is still following it
+    private int pvMove(int ply) {
+        return followPv && ply < previousPvLength ? previousPv[ply] : Move.NONE;
+    }
+
+    // The line below this node becomes the move followed by the child's line
+    private void updatePv(int ply, int move) {
+        pvTable[ply][ply] = move;
+        int childLength = ply + 1 < MAX_PLY ? pvLength[ply + 1] : ply + 1;
+        for (int i = ply + 1; i < childLength; i++) {
+            pvTable[ply][i] = pvTable[ply + 1][i];
+        }
+        pvLength[ply] = Math.max(childLength, ply + 1);
+    }
+
+    private int probeMove() {
+        long entry = transpositionTable.probe(position.getKey());
+        return entry != 0 ? TranspositionTable.move(entry) : Move.NONE;
+    }
+
+    // Mate scores are stored relative to the node so they stay valid when reached at another ply
+    private static int scoreToTable(int score, int ply) {
+        if (score > MATE_SCORE - MAX_PLY) return score + ply;
+        if (score < -MATE_SCORE + MAX_PLY) return score - ply;
+        return score;
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        if (score > MATE_SCORE - MAX_PLY) return score - ply;
+        if (score < -MATE_SCORE + MAX_PLY) return score + ply;
+        return score;
+    }
+
+    // Staged ordering through one score per move, nothing is played on the board:
+    // PV move, hash move, winning and equal captures and promotions by MVV-LVA, the two killers,
+    // quiet moves by history, then losing captures
+    private void scoreMoves(int[] moves, int count, int ply, int ttMove, int pvMove) {
+        int[] scores = scoreBuffers[ply];
+        int killer1 = killers[ply][0], killer2 = killers[ply][1];
+        int[][] sideHistory = history[position.getSideToMove()];
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (move == pvMove) {
+                scores[i] = INFINITY;
+            } else if (move == ttMove) {
+                scores[i] = INFINITY - 1;
+            } else if (Move.isCapture(move) || Move.isPromotion(move)) {
+                // Captures that lose material on the exchange go after the quiet moves
+                scores[i] = (staticExchange.isLosing(position, move) ? BAD_CAPTURE_SCORE : CAPTURE_SCORE) + mvvLva(move);
+            } else if (move == killer1) {
+                scores[i] = KILLER_SCORE + 1;
+            } else if (move == killer2) {
+                scores[i] = KILLER_SCORE;
+            } else {
+                scores[i] = sideHistory[Move.from(move)][Move.to(move)];
+            }
+        }
+    }
+
+    private void scoreCaptures(int[] moves, int count, int ply) {
+        int[] scores = scoreBuffers[ply];
+        for (int i = 0; i < count; i++) {
+            scores[i] = mvvLva(moves[i]);
+        }
+    }
+
+    // Most valuable victim first, cheapest attacker first among equal victims
+    private int mvvLva(int move) {
+        int attacker = Position.typeOf(position.pieceAt(Move.from(move)));
+        int score = capturedValue(move) * 10 - attacker;
+        if (Move.isPromotion(move)) score += PieceSquareTables.pieceValue(Move.promotionType(move)) * 10;
+        return score;
+    }
+
+    // A quiet move that caused a beta cutoff: remember it as a killer for this ply and credit its history
+    private void recordCutoff(int move, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] fromHistory = history[position.getSideToMove()][Move.from(move)];
+        fromHistory[Move.to(move)] += depth * depth;
+        if (fromHistory[Move.to(move)] > HISTORY_LIMIT) {
+            ageHistory();
+        }
+    }
+
+    // Forgets what earlier searches learned, for a new game; the killers are reset by every search anyway
+    public void clearHistory() {
+        for (int[][] sideHistory : history) {
+            for (int[] fromHistory : sideHistory) {
+                Arrays.fill(fromHistory, 0);
+            }
+        }
+    }
+
+    // Halves every history score, so they stay below the killer range and older cutoffs fade
+    private void ageHistory() {
+        for (int[][] sideHistory : history) {
+            for (int[] fromHistory : sideHistory) {
+                for (int to = 0; to < 64; to++) {
+                    fromHistory[to] >>= 1;
+                }
+            }
+        }
+    }
+
+    // One step of a selection sort: brings the best of moves[index..count) to index and returns it. The
+    // first of equal scores wins and the moves in between shift up one place, so the order stays what a
+    // stable sort gives (generation order among equals).
+    private static int pickMove(int[] moves, int[] scores, int index, int count) {
+        int best = index;
+        for (int i = index + 1; i < count; i++) {
+            if (scores[i] > scores[best]) best = i;
+        }
+        int move = moves[best], score = scores[best];
+        for (int i = best; i > index; i--) {
+            moves[i] = moves[i - 1];
+            scores[i] = scores[i - 1];
+        }
+        moves[index] = move;
+        scores[index] = score;
+        return move;
+    }
+
+    // Principal variation of the last finished iteration
+    public int[] getPrincipalVariation() {
+        return Arrays.copyOf(previousPv, previousPvLength);
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    // Score of the last finished root iteration, from the side to move's point of view
+    public int getBestScore() {
+        return bestScore;
+    }
+}
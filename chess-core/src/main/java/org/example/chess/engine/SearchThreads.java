@@ -0,0 +1,98 @@
+package org.example.chess.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Lazy SMP: the helpers search the same position on their own copies and feed the shared table,
+// the main search decides the move and stops them when it is done
+public class SearchThreads {
+    // Daemon threads so a pending search never keeps the application alive
+    private static final ExecutorService HELPER_POOL = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "search-helper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final TranspositionTable transpositionTable;
+    private final Tablebases tablebases;
+    private Search[] searches; // [0] is the main search, the rest are helpers
+
+    public SearchThreads(TranspositionTable transpositionTable, Tablebases tablebases, int threads) {
+        this.transpositionTable = transpositionTable;
+        this.tablebases = tablebases;
+        setThreads(threads);
+    }
+
+    // Number of search threads, including the main one
+    public void setThreads(int threads) {
+        threads = Math.max(1, threads);
+        if (searches != null && searches.length == threads) return;
+        searches = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(transpositionTable);
+            searches[i].setTablebases(tablebases);
+        }
+    }
+
+    // History scores of every thread, so the main search and the helpers start the same after a new game
+    public void clearHistory() {
+        for (Search search : searches) {
+            search.clearHistory();
+        }
+    }
+
+    public int getThreads() {
+        return searches.length;
+    }
+
+    // The search that decides the move; also used alone for fixed-depth searches
+    public Search main() {
+        return searches[0];
+    }
+
+    // Nodes of all threads in the current or last search
+    public long getNodes() {
+        long nodes = 0;
+        for (Search search : searches) {
+            nodes += search.getNodes();
+        }
+        return nodes;
+    }
+
+    public int search(Position snapshot, AtomicBoolean stop, TimeManager timeManager, int maxDepth) {
+        transpositionTable.newSearch();
+
+        List<Future<?>> helpers = new ArrayList<>();
+        for (int i = 1; i < searches.length; i++) {
+            Search helper = searches[i];
+            helper.setPosition(snapshot);
+            helper.setStop(stop);
+            helper.setTimeManager(null);
+            int startDepth = 1 + (i & 1); // Half the helpers start one ply deeper
+            helpers.add(HELPER_POOL.submit(() -> helper.iterativeDeepening(startDepth, maxDepth)));
+        }
+
+        Search main = searches[0];
+        main.setPosition(snapshot);
+        main.setStop(stop);
+        main.setTimeManager(timeManager);
+        int bestMove = main.iterativeDeepening(1, maxDepth);
+
+        stop.set(true);
+        for (Future<?> helper : helpers) {
+            try {
+                helper.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                System.err.println("Search helper failed: " + e.getCause());
+            }
+        }
+        return bestMove;
+    }
+}
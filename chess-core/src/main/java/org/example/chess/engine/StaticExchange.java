@@ -0,0 +1,75 @@
+package org.example.chess.engine;
+
+// Static exchange evaluation: the material outcome of the capture sequence on one square, with both sides
+// recapturing with their least valuable attacker and free to stop when going on would lose material.
+// Nothing is played on the board. One instance per search thread (it owns the swap list).
+public class StaticExchange {
+    private static final int[] VALUES = {100, 300, 300, 500, 900, 20000}; // The king may only capture last
+
+    private final int[] gain = new int[32];
+
+    // Material won (negative when lost) by the side making the capture
+    public int evaluate(Position position, int move) {
+        int from = Move.from(move), to = Move.to(move);
+        int attacker = position.pieceAt(from);
+        long occupied = position.occupancy() ^ (1L << from);
+        int captured;
+        if (Move.isEnPassant(move)) {
+            captured = Position.PAWN;
+            occupied ^= 1L << (to + (Position.colorOf(attacker) == Position.WHITE ? -8 : 8));
+        } else {
+            int victim = position.pieceAt(to);
+            captured = victim == Position.EMPTY ? -1 : Position.typeOf(victim);
+        }
+
+        gain[0] = captured < 0 ? 0 : VALUES[captured];
+        int onSquare = Position.typeOf(attacker); // Piece that the next capture takes
+        if (Move.isPromotion(move)) {
+            gain[0] += VALUES[Move.promotionType(move)] - VALUES[Position.PAWN];
+            onSquare = Move.promotionType(move);
+        }
+
+        int side = 1 - Position.colorOf(attacker);
+        long attackers = position.attackersTo(to, occupied) & occupied;
+        int depth = 0;
+        while (depth < gain.length - 1) {
+            // Speculative score for side if it takes the piece on the square and is not recaptured
+            depth++;
+            gain[depth] = VALUES[onSquare] - gain[depth - 1];
+            if (Math.max(-gain[depth - 1], gain[depth]) < 0) break; // Whatever follows, the result is decided
+
+            long sideAttackers = attackers & position.occupancy(side);
+            if (sideAttackers == 0) break;
+            int type = Position.PAWN;
+            long bit = 0;
+            for (; type <= Position.KING; type++) {
+                long candidates = sideAttackers & position.pieces(side, type);
+                if (candidates != 0) {
+                    bit = candidates & -candidates;
+                    break;
+                }
+            }
+            // The king cannot capture onto a square the other side still defends
+            if (type == Position.KING && (attackers & position.occupancy(1 - side)) != 0) break;
+
+            onSquare = type;
+            occupied ^= bit;
+            attackers = position.attackersTo(to, occupied) & occupied; // Uncovers x-ray attackers
+            side = 1 - side;
+        }
+        // The last entry is speculative (nobody captured); fold the others back, each side may stop instead
+        while (--depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+        }
+        return gain[0];
+    }
+
+    // Capturing a piece worth at least the attacker can never lose material, so the exchange is only resolved otherwise
+    public boolean isLosing(Position position, int move) {
+        if (Move.isPromotion(move) || Move.isEnPassant(move)) return false;
+        int victim = position.pieceAt(Move.to(move));
+        int attacker = position.pieceAt(Move.from(move));
+        if (victim != Position.EMPTY && VALUES[Position.typeOf(victim)] >= VALUES[Position.typeOf(attacker)]) return false;
+        return evaluate(position, move) < 0;
+    }
+}
@@ -0,0 +1,446 @@
+package org.example.chess.engine;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Win/draw/loss and distance to mate for every position of one material set, e.g. "KRvK" or "KQvKP".
+// White is always the stronger side; Tablebases flips colours before looking a position up.
+// Built by retrograde analysis: mates and the results of captures and promotions (looked up in the smaller
+// tables) are the seeds, then results spread backwards one ply at a time through un-moves.
+// File layout: MAGIC, entry count, 2-bit WDL codes (4 per byte), then one DTM byte (plies) per entry.
+final class Tablebase {
+    static final int DRAW = 0, WIN = 1, LOSS = 2, INVALID = 3; // WDL codes, for the side to move
+
+    private static final int MAGIC = 0x54424C31; // "TBL1"
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_PLIES = 254;
+
+    // Generation states
+    private static final byte UNKNOWN = 0; // No drawing or winning escape found yet
+    private static final byte ILLEGAL = 1;
+    private static final byte WON = 2;
+    private static final byte LOST = 3;
+    private static final byte DRAWN = 4;
+    private static final byte PENDING_WIN = 5; // A conversion wins in dtm plies, unless a faster win turns up
+    private static final byte PENDING_LOSS = 6; // Every move loses, the slowest loss is a conversion at dtm plies
+    private static final byte DRAWISH = 7; // A conversion holds the draw, can still turn out to be a win
+
+    // Symmetry: without pawns the white king is mapped into the a1-d1-d4 triangle, with pawns onto files a-d
+    private static final int[] TRIANGLE_INDEX = new int[64];
+    private static final int[] TRIANGLE_SQUARES = new int[10];
+    private static final int[] HALF_INDEX = new int[64];
+    private static final int[] HALF_SQUARES = new int[32];
+
+    static {
+        int triangle = 0, half = 0;
+        for (int square = 0; square < 64; square++) {
+            int file = square & 7, rank = square >>> 3;
+            TRIANGLE_INDEX[square] = -1;
+            HALF_INDEX[square] = -1;
+            if (file <= 3 && rank <= file) {
+                TRIANGLE_INDEX[square] = triangle;
+                TRIANGLE_SQUARES[triangle++] = square;
+            }
+            if (file <= 3) {
+                HALF_INDEX[square] = half;
+                HALF_SQUARES[half++] = square;
+            }
+        }
+    }
+
+    final String name;
+    private final int pieceCount;
+    private final int[] slotTypes; // Slot 0 is the white king, slot 1 the black king, then white and black pieces
+    private final int[] slotColors;
+    private final boolean hasPawns;
+    private final int size;
+    private MappedByteBuffer data;
+    // Move lists for generation
+    private final int[] moveSlots = new int[MoveGenerator.MAX_MOVES];
+    private final int[] moveTargets = new int[MoveGenerator.MAX_MOVES];
+    private final int[] movePromotions = new int[MoveGenerator.MAX_MOVES];
+    private final int[] mirrored;
+
+    Tablebase(String name, int[] whiteTypes, int[] blackTypes) {
+        this.name = name;
+        this.pieceCount = 2 + whiteTypes.length + blackTypes.length;
+        this.slotTypes = new int[pieceCount];
+        this.slotColors = new int[pieceCount];
+        this.mirrored = new int[pieceCount];
+        slotTypes[0] = slotTypes[1] = Position.KING;
+        slotColors[1] = Position.BLACK;
+        boolean pawns = false;
+        for (int i = 0; i < whiteTypes.length + blackTypes.length; i++) {
+            boolean white = i < whiteTypes.length;
+            slotTypes[i + 2] = white ? whiteTypes[i] : blackTypes[i - whiteTypes.length];
+            slotColors[i + 2] = white ? Position.WHITE : Position.BLACK;
+            pawns |= slotTypes[i + 2] == Position.PAWN;
+        }
+        this.hasPawns = pawns;
+        this.size = 2 * (pawns ? 32 : 10) * (1 << (6 * (pieceCount - 1)));
+    }
+
+    // Squares in slot order, side to move; the position must be legal
+    int wdl(int[] squares, int side) {
+        int index = index(squares, side);
+        return (data.get(HEADER_SIZE + (index >>> 2)) >>> ((index & 3) * 2)) & 3;
+    }
+
+    int dtm(int[] squares, int side) {
+        return data.get(HEADER_SIZE + (size + 3) / 4 + index(squares, side)) & 0xFF;
+    }
+
+    private int index(int[] squares, int side) {
+        int king = squares[0];
+        int flip = (king & 7) > 3 ? 7 : 0; // Mirror the files
+        if (!hasPawns && (king >>> 3) > 3) flip |= 56; // and the ranks
+        king ^= flip;
+        boolean diagonal = !hasPawns && (king >>> 3) > (king & 7);
+        int index = side * (hasPawns ? 32 : 10) + (hasPawns ? HALF_INDEX[king] : TRIANGLE_INDEX[diagonal ? transpose(king) : king]);
+        for (int slot = 1; slot < pieceCount; slot++) {
+            int square = squares[slot] ^ flip;
+            index = (index << 6) | (diagonal ? transpose(square) : square);
+        }
+        return index;
+    }
+
+    private static int transpose(int square) {
+        return ((square & 7) << 3) | (square >>> 3);
+    }
+
+    // Fills squares from the index, returns the side to move
+    private int decode(int index, int[] squares) {
+        for (int slot = pieceCount - 1; slot >= 1; slot--) {
+            squares[slot] = index & 63;
+            index >>>= 6;
+        }
+        int kings = hasPawns ? 32 : 10;
+        squares[0] = hasPawns ? HALF_SQUARES[index % kings] : TRIANGLE_SQUARES[index % kings];
+        return index / kings;
+    }
+
+    // Loads the table from the directory, generating and writing it first when the file is missing.
+    // The smaller tables reached by captures and promotions must already be available in the registry.
+    void load(Path directory, Tablebases registry) throws IOException {
+        Path file = directory.resolve(name + ".tbl");
+        if (!Files.exists(file)) {
+            long start = System.nanoTime();
+            byte[][] result = generate(registry);
+            write(directory, file, result[0], result[1]);
+            // On stderr, stdout may be carrying the UCI protocol
+            System.err.println("Generated tablebase " + name + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != HEADER_SIZE + (size + 3) / 4 + (long) size) {
+                throw new IOException("Corrupt tablebase " + file);
+            }
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (data.getInt(0) != MAGIC || data.getInt(4) != size) throw new IOException("Corrupt tablebase " + file);
+    }
+
+    private void write(Path directory, Path file, byte[] state, byte[] dtm) throws IOException {
+        Files.createDirectories(directory);
+        byte[] wdl = new byte[(size + 3) / 4];
+        for (int index = 0; index < size; index++) {
+            int code = switch (state[index]) {
+                case WON -> WIN;
+                case LOST -> LOSS;
+                case ILLEGAL -> INVALID;
+                default -> DRAW;
+            };
+            if (code == DRAW) dtm[index] = 0;
+            wdl[index >>> 2] |= (byte) (code << ((index & 3) * 2));
+        }
+        // Written under a temporary name so an interrupted run never leaves a truncated table behind
+        Path temporary = directory.resolve(name + ".tbl.tmp");
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            DataOutputStream header = new DataOutputStream(out);
+            header.writeInt(MAGIC);
+            header.writeInt(size);
+            out.write(wdl);
+            out.write(dtm);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private byte[][] generate(Tablebases registry) {
+        byte[] state = new byte[size];
+        byte[] dtm = new byte[size];
+        int[] squares = new int[pieceCount];
+        int maxPending = 0;
+
+        // Seeds: illegal positions, mates, stalemates and the outcome of every capture and promotion
+        for (int index = 0; index < size; index++) {
+            int side = decode(index, squares);
+            if (!isLegal(squares, side)) {
+                state[index] = ILLEGAL;
+                continue;
+            }
+            seed(squares, side, index, state, dtm, registry);
+            if (state[index] == PENDING_WIN || state[index] == PENDING_LOSS) {
+                maxPending = Math.max(maxPending, dtm[index] & 0xFF);
+            }
+        }
+
+        // Retrograde passes: everything decided at ply n decides its predecessors at ply n + 1
+        for (int ply = 0; ply < MAX_PLIES; ply++) {
+            boolean decided = false;
+            for (int index = 0; index < size; index++) {
+                if ((dtm[index] & 0xFF) != ply) continue;
+                byte s = state[index];
+                if (s == PENDING_WIN) state[index] = s = WON;
+                if (s == PENDING_LOSS) state[index] = s = LOST;
+                if (s != WON && s != LOST) continue;
+                decided = true;
+                int side = decode(index, squares);
+                maxPending = Math.max(maxPending, propagate(squares, side, s == LOST, ply, state, dtm));
+            }
+            if (!decided && ply >= maxPending) break;
+        }
+        return new byte[][]{state, dtm};
+    }
+
+    private void seed(int[] squares, int side, int index, byte[] state, byte[] dtm, Tablebases registry) {
+        int[] slots = moveSlots, targets = moveTargets, promotions = movePromotions;
+        int count = generateMoves(squares, side, slots, targets, promotions);
+        if (count == 0) {
+            state[index] = isAttacked(squares[side], 1 - side, squares, occupancy(squares, -1), -1) ? LOST : DRAWN;
+            return;
+        }
+        int bestWin = Integer.MAX_VALUE, slowestLoss = 0, inTable = 0;
+        boolean drawish = false;
+        for (int i = 0; i < count; i++) {
+            int captured = slotAt(squares, targets[i]);
+            if (captured < 0 && promotions[i] == 0) {
+                inTable++;
+                continue;
+            }
+            // The child belongs to a smaller table, from the opponent's point of view
+            long result = registry.lookup(childPieces(squares, slots[i], targets[i], promotions[i], captured), 1 - side);
+            if (result < 0) throw new IllegalStateException("Tablebase " + name + " needs a missing table");
+            int wdl = (int) (result & 3), plies = (int) (result >>> 2);
+            if (wdl == LOSS) bestWin = Math.min(bestWin, plies + 1);
+            else if (wdl == WIN) slowestLoss = Math.max(slowestLoss, plies + 1);
+            else drawish = true;
+        }
+        if (bestWin != Integer.MAX_VALUE) {
+            state[index] = PENDING_WIN;
+            dtm[index] = (byte) bestWin;
+        } else if (inTable == 0) {
+            state[index] = drawish ? DRAWN : PENDING_LOSS;
+            dtm[index] = (byte) (drawish ? 0 : slowestLoss);
+        } else {
+            state[index] = drawish ? DRAWISH : UNKNOWN;
+            dtm[index] = (byte) (drawish ? 0 : slowestLoss); // Lower bound for the loss, kept until decided
+        }
+    }
+
+    // Un-moves of the side that just moved into the decided position; returns the largest new pending ply
+    private int propagate(int[] squares, int side, boolean lost, int ply, byte[] state, byte[] dtm) {
+        int mover = 1 - side;
+        long occupied = occupancy(squares, -1);
+        int maxPending = 0;
+        for (int slot = 0; slot < pieceCount; slot++) {
+            if (slotColors[slot] != mover) continue;
+            int from = squares[slot];
+            long origins = unmoveOrigins(slotTypes[slot], mover, from, occupied);
+            while (origins != 0) {
+                int origin = Long.numberOfTrailingZeros(origins);
+                origins &= origins - 1;
+                squares[slot] = origin;
+                int predecessor = index(squares, mover);
+                int twin = twinIndex(squares, mover, predecessor);
+                byte s = state[predecessor];
+                if (lost) {
+                    // Moving into a lost position wins
+                    if (s == UNKNOWN || s == DRAWISH || (s == PENDING_WIN && (dtm[predecessor] & 0xFF) > ply + 1)) {
+                        state[predecessor] = state[twin] = WON;
+                        dtm[predecessor] = dtm[twin] = (byte) (ply + 1);
+                    }
+                } else if (s == UNKNOWN && allMovesLose(squares, mover, ply, state, dtm)) {
+                    int plies = Math.max(ply + 1, dtm[predecessor] & 0xFF);
+                    state[predecessor] = state[twin] = plies == ply + 1 ? LOST : PENDING_LOSS;
+                    dtm[predecessor] = dtm[twin] = (byte) plies;
+                    if (plies > ply + 1) maxPending = Math.max(maxPending, plies);
+                }
+            }
+            squares[slot] = from;
+        }
+        return maxPending;
+    }
+
+    // With the white king on the a1-h8 diagonal a pawnless position and its mirror image along the diagonal
+    // are stored twice; un-moves only reach one of them, so both get every update
+    private int twinIndex(int[] squares, int side, int index) {
+        if (hasPawns) return index;
+        int king = TRIANGLE_SQUARES[(index >>> (6 * (pieceCount - 1))) % 10];
+        if ((king & 7) != (king >>> 3)) return index;
+        for (int slot = 0; slot < pieceCount; slot++) {
+            mirrored[slot] = transpose(squares[slot]);
+        }
+        return index(mirrored, side);
+    }
+
+    // Squares the piece can have come from with a quiet move
+    private static long unmoveOrigins(int type, int color, int square, long occupied) {
+        long empty = ~occupied;
+        if (type != Position.PAWN) return attacks(type, color, square, occupied) & empty;
+        int back = color == Position.WHITE ? -8 : 8;
+        int origin = square + back;
+        int rank = origin >>> 3;
+        if (rank < 1 || rank > 6 || (occupied & (1L << origin)) != 0) return 0L;
+        long origins = 1L << origin;
+        int startRank = color == Position.WHITE ? 1 : 6;
+        int doubleOrigin = origin + back;
+        if ((doubleOrigin >>> 3) == startRank && (doubleOrigin & 63) == doubleOrigin
+                && (occupied & (1L << doubleOrigin)) == 0) {
+            origins |= 1L << doubleOrigin;
+        }
+        return origins;
+    }
+
+    // True when every quiet move of side leads to a position already won for the opponent by ply
+    private boolean allMovesLose(int[] squares, int side, int ply, byte[] state, byte[] dtm) {
+        int[] slots = moveSlots, targets = moveTargets, promotions = movePromotions;
+        int count = generateMoves(squares, side, slots, targets, promotions);
+        for (int i = 0; i < count; i++) {
+            if (promotions[i] != 0 || slotAt(squares, targets[i]) >= 0) continue; // Conversions were seeded
+            int slot = slots[i], from = squares[slot];
+            squares[slot] = targets[i];
+            int child = index(squares, 1 - side);
+            squares[slot] = from;
+            byte s = state[child];
+            if (s != WON && !(s == PENDING_WIN && (dtm[child] & 0xFF) <= ply)) return false;
+        }
+        return true;
+    }
+
+    // Legal moves of side: moving slot, target square and promotion type (0 for none)
+    private int generateMoves(int[] squares, int side, int[] slots, int[] targets, int[] promotions) {
+        long occupied = occupancy(squares, -1);
+        long own = 0L;
+        for (int slot = 0; slot < pieceCount; slot++) {
+            if (slotColors[slot] == side) own |= 1L << squares[slot];
+        }
+        long enemyKing = 1L << squares[1 - side];
+        int count = 0;
+        for (int slot = 0; slot < pieceCount; slot++) {
+            if (slotColors[slot] != side) continue;
+            int from = squares[slot];
+            int type = slotTypes[slot];
+            long destinations;
+            if (type == Position.PAWN) {
+                int forward = side == Position.WHITE ? 8 : -8;
+                destinations = Attacks.pawn(side, from) & occupied & ~own;
+                int push = from + forward;
+                if ((occupied & (1L << push)) == 0) {
+                    destinations |= 1L << push;
+                    int startRank = side == Position.WHITE ? 1 : 6;
+                    if ((from >>> 3) == startRank && (occupied & (1L << (push + forward))) == 0) {
+                        destinations |= 1L << (push + forward);
+                    }
+                }
+            } else {
+                destinations = attacks(type, side, from, occupied) & ~own;
+            }
+            destinations &= ~enemyKing;
+            while (destinations != 0) {
+                int to = Long.numberOfTrailingZeros(destinations);
+                destinations &= destinations - 1;
+                int captured = slotAt(squares, to);
+                squares[slot] = to;
+                boolean legal = !isAttacked(squares[side], 1 - side, squares,
+                        (occupied & ~(1L << from)) | (1L << to), captured);
+                squares[slot] = from;
+                if (!legal) continue;
+                int rank = to >>> 3;
+                if (type == Position.PAWN && (rank == 0 || rank == 7)) {
+                    for (int promotion = Position.QUEEN; promotion >= Position.KNIGHT; promotion--) {
+                        slots[count] = slot;
+                        targets[count] = to;
+                        promotions[count++] = promotion;
+                    }
+                } else {
+                    slots[count] = slot;
+                    targets[count] = to;
+                    promotions[count++] = 0;
+                }
+            }
+        }
+        return count;
+    }
+
+    private boolean isLegal(int[] squares, int side) {
+        long seen = 0L;
+        for (int slot = 0; slot < pieceCount; slot++) {
+            long bit = 1L << squares[slot];
+            if ((seen & bit) != 0) return false;
+            seen |= bit;
+            int rank = squares[slot] >>> 3;
+            if (slotTypes[slot] == Position.PAWN && (rank == 0 || rank == 7)) return false;
+        }
+        if ((Attacks.king(squares[0]) & (1L << squares[1])) != 0) return false;
+        // The side that just moved cannot be left in check
+        return !isAttacked(squares[1 - side], side, squares, seen, -1);
+    }
+
+    private boolean isAttacked(int target, int byColor, int[] squares, long occupied, int skipSlot) {
+        for (int slot = 0; slot < pieceCount; slot++) {
+            if (slot == skipSlot || slotColors[slot] != byColor) continue;
+            if ((attacks(slotTypes[slot], byColor, squares[slot], occupied) & (1L << target)) != 0) return true;
+        }
+        return false;
+    }
+
+    private static long attacks(int type, int color, int square, long occupied) {
+        return switch (type) {
+            case Position.PAWN -> Attacks.pawn(color, square);
+            case Position.KNIGHT -> Attacks.knight(square);
+            case Position.BISHOP -> Attacks.bishop(square, occupied);
+            case Position.ROOK -> Attacks.rook(square, occupied);
+            case Position.QUEEN -> Attacks.queen(square, occupied);
+            default -> Attacks.king(square);
+        };
+    }
+
+    private long occupancy(int[] squares, int skipSlot) {
+        long occupied = 0L;
+        for (int slot = 0; slot < pieceCount; slot++) {
+            if (slot != skipSlot) occupied |= 1L << squares[slot];
+        }
+        return occupied;
+    }
+
+    private int slotAt(int[] squares, int square) {
+        for (int slot = 0; slot < pieceCount; slot++) {
+            if (squares[slot] == square) return slot;
+        }
+        return -1;
+    }
+
+    // Pieces after a capture or promotion as {square, piece} pairs, for Tablebases.lookup
+    private int[] childPieces(int[] squares, int movingSlot, int to, int promotion, int captured) {
+        int[] pieces = new int[2 * (pieceCount - (captured >= 0 ? 1 : 0))];
+        int n = 0;
+        for (int slot = 0; slot < pieceCount; slot++) {
+            if (slot == captured) continue;
+            int type = slotTypes[slot];
+            int square = squares[slot];
+            if (slot == movingSlot) {
+                square = to;
+                if (promotion != 0) type = promotion;
+            }
+            pieces[n++] = square;
+            pieces[n++] = Position.piece(slotColors[slot], type);
+        }
+        return pieces;
+    }
+}
@@ -0,0 +1,293 @@
+package org.example.chess.engine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Endgame tablebases for up to MAX_PIECES pieces, kings included. A table is generated on first use by a
+// background thread (together with the smaller tables it converts into), written to the directory and
+// memory-mapped; until it is ready the probes answer UNKNOWN and the search carries on as usual.
+public final class Tablebases {
+    public static final int MAX_PIECES = 4;
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private static final String PIECE_LETTERS = "PNBRQK";
+    private static final ExecutorService GENERATOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "tablebase-generator");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private final Path directory;
+    private final Map<String, Tablebase> tables = new ConcurrentHashMap<>(); // Ready to probe
+    private final AtomicReferenceArray<Tablebase> byMaterial = new AtomicReferenceArray<>(1 << 12); // The same, by materialIndex
+    private final Set<String> requested = ConcurrentHashMap.newKeySet();
+    private final Set<String> failed = ConcurrentHashMap.newKeySet();
+
+    public Tablebases(Path directory) {
+        this.directory = directory;
+    }
+
+    // Makes sure the tables the game can reach soon exist: the position's own material once it is small
+    // enough, and every material one capture away from it
+    public void prepare(Position position) {
+        int pieces = Long.bitCount(position.occupancy());
+        if (pieces > MAX_PIECES + 1) return;
+        int[][] material = material(position);
+        List<String> names = new ArrayList<>();
+        if (pieces <= MAX_PIECES) {
+            names.add(name(material[0], material[1]));
+        } else {
+            children(material[0], material[1], false, names);
+        }
+        for (String name : names) {
+            if (!name.equals("KvK") && requested.add(name)) {
+                GENERATOR.submit(() -> ensure(name));
+            }
+        }
+    }
+
+    // Score for the side to move in the search's mate convention, UNKNOWN when no table answers
+    public int probeScore(Position position, int ply) {
+        return probeScore(position, ply, new int[MAX_PIECES]);
+    }
+
+    // As above with the caller's scratch of MAX_PIECES squares, so the search probes without allocating
+    public int probeScore(Position position, int ply, int[] squares) {
+        long result = probe(position, squares);
+        if (result < 0) return UNKNOWN;
+        int plies = (int) (result >>> 2);
+        return switch ((int) (result & 3)) {
+            case Tablebase.WIN -> Search.MATE_SCORE - ply - plies;
+            case Tablebase.LOSS -> -Search.MATE_SCORE + ply + plies;
+            default -> 0;
+        };
+    }
+
+    // Best move by the tables: the fastest win, else a draw, else the slowest loss. NONE when not covered.
+    public int bestMove(Position position) {
+        int[] squares = new int[MAX_PIECES];
+        if (probe(position, squares) < 0) return Move.NONE;
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegal(position, moves, 0);
+        int bestMove = Move.NONE, bestScore = -Search.INFINITY;
+        for (int i = 0; i < count; i++) {
+            position.makeMove(moves[i]);
+            int score = probeScore(position, 1, squares);
+            position.unmakeMove(moves[i]);
+            if (score == UNKNOWN) return Move.NONE; // E.g. an en passant square the tables do not cover
+            score = -score;
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = moves[i];
+            }
+        }
+        return bestMove;
+    }
+
+    // Packed WDL (bits 0-1) and DTM in plies (bits 2+) for the side to move, -1 when not available.
+    // Castling rights and en passant squares are not part of the tables. Same slot order as lookup, but
+    // read straight from the bitboards into squares.
+    private long probe(Position position, int[] squares) {
+        long occupied = position.occupancy();
+        if (Long.bitCount(occupied) > MAX_PIECES
+                || position.getCastlingRights() != 0 || position.getEnPassantSquare() >= 0) {
+            return -1;
+        }
+        if (Long.bitCount(occupied) == 2) return Tablebase.DRAW; // Bare kings
+        int whiteCount = 0, blackCount = 0, whiteCode = 0, blackCode = 0;
+        for (int type = Position.QUEEN; type >= Position.PAWN; type--) {
+            for (int i = Long.bitCount(position.pieces(Position.WHITE, type)); i > 0; i--, whiteCount++) {
+                whiteCode = (whiteCode << 3) | (type + 1);
+            }
+            for (int i = Long.bitCount(position.pieces(Position.BLACK, type)); i > 0; i--, blackCount++) {
+                blackCode = (blackCode << 3) | (type + 1);
+            }
+        }
+        // Same order as compare: more pieces, then the stronger ones
+        boolean flip = blackCount != whiteCount ? blackCount > whiteCount : blackCode > whiteCode;
+        Tablebase table = byMaterial.get(flip ? (blackCode << 6) | whiteCode : (whiteCode << 6) | blackCode);
+        if (table == null) return -1;
+
+        int strong = flip ? Position.BLACK : Position.WHITE;
+        int mirror = flip ? 56 : 0; // Mirror the ranks when swapping colours
+        squares[0] = Long.numberOfTrailingZeros(position.pieces(strong, Position.KING)) ^ mirror;
+        squares[1] = Long.numberOfTrailingZeros(position.pieces(1 - strong, Position.KING)) ^ mirror;
+        int slot = 2;
+        for (int color = strong, n = 0; n < 2; color = 1 - color, n++) {
+            for (int type = Position.QUEEN; type >= Position.PAWN; type--) {
+                for (long bb = position.pieces(color, type); bb != 0; bb &= bb - 1) {
+                    squares[slot++] = Long.numberOfTrailingZeros(bb) ^ mirror;
+                }
+            }
+        }
+        int side = flip ? 1 - position.getSideToMove() : position.getSideToMove();
+        int wdl = table.wdl(squares, side);
+        if (wdl == Tablebase.INVALID) return -1;
+        return wdl | ((long) table.dtm(squares, side) << 2);
+    }
+
+    // Pieces as {square, piece} pairs; colours are flipped when Black holds the stronger material.
+    // Used while generating, where the pieces come from a move that was never played on a Position.
+    long lookup(int[] pieces, int side) {
+        int count = pieces.length / 2;
+        if (count == 2) return Tablebase.DRAW; // Bare kings
+        int[] whiteTypes = new int[count], blackTypes = new int[count];
+        int whiteCount = 0, blackCount = 0;
+        for (int i = 0; i < count; i++) {
+            int piece = pieces[2 * i + 1];
+            if (Position.typeOf(piece) == Position.KING) continue;
+            if (Position.colorOf(piece) == Position.WHITE) whiteTypes[whiteCount++] = Position.typeOf(piece);
+            else blackTypes[blackCount++] = Position.typeOf(piece);
+        }
+        int[] white = sorted(whiteTypes, whiteCount), black = sorted(blackTypes, blackCount);
+        boolean flip = compare(black, white) > 0;
+        Tablebase table = tables.get(flip ? name(black, white) : name(white, black));
+        if (table == null) return -1;
+
+        // Slot order: white king, black king, then the table's white and black pieces by falling type
+        int[] tableWhite = flip ? black : white, tableBlack = flip ? white : black;
+        int[] squares = new int[count];
+        long taken = 0L;
+        for (int slot = 0; slot < count; slot++) {
+            int color = slot == 1 || slot - 2 >= tableWhite.length ? Position.BLACK : Position.WHITE;
+            int type = slot < 2 ? Position.KING
+                    : color == Position.WHITE ? tableWhite[slot - 2] : tableBlack[slot - 2 - tableWhite.length];
+            for (int i = 0; i < count; i++) {
+                int piece = pieces[2 * i + 1];
+                int square = flip ? pieces[2 * i] ^ 56 : pieces[2 * i]; // Mirror the ranks when swapping colours
+                int pieceColor = flip ? 1 - Position.colorOf(piece) : Position.colorOf(piece);
+                if ((taken & (1L << square)) == 0 && pieceColor == color && Position.typeOf(piece) == type) {
+                    taken |= 1L << square;
+                    squares[slot] = square;
+                    break;
+                }
+            }
+        }
+        int tableSide = flip ? 1 - side : side;
+        int wdl = table.wdl(squares, tableSide);
+        if (wdl == Tablebase.INVALID) return -1;
+        return wdl | ((long) table.dtm(squares, tableSide) << 2);
+    }
+
+    // Generates or loads the table and, first, the tables its captures and promotions lead to
+    void ensure(String name) {
+        if (tables.containsKey(name) || failed.contains(name)) return;
+        int[][] material = parse(name);
+        List<String> children = new ArrayList<>();
+        children(material[0], material[1], true, children);
+        for (String child : children) {
+            if (!child.equals("KvK")) ensure(child);
+            if (!child.equals("KvK") && !tables.containsKey(child)) {
+                failed.add(name);
+                return;
+            }
+        }
+        Tablebase table = new Tablebase(name, material[0], material[1]);
+        try {
+            table.load(directory, this);
+            tables.put(name, table);
+            byMaterial.set(materialIndex(material[0], material[1]), table);
+        } catch (IOException | RuntimeException e) {
+            failed.add(name);
+            System.err.println("Tablebase " + name + " unavailable: " + e.getMessage());
+        }
+    }
+
+    // Materials one capture away, and one promotion away when promotions is set
+    private static void children(int[] white, int[] black, boolean promotions, List<String> names) {
+        for (int side = 0; side < 2; side++) {
+            int[] own = side == 0 ? white : black, other = side == 0 ? black : white;
+            for (int i = 0; i < own.length; i++) {
+                int[] removed = new int[own.length - 1];
+                for (int j = 0, k = 0; j < own.length; j++) {
+                    if (j != i) removed[k++] = own[j];
+                }
+                addCanonical(side == 0 ? removed : other, side == 0 ? other : removed, names);
+                if (promotions && own[i] == Position.PAWN) {
+                    for (int type = Position.KNIGHT; type <= Position.QUEEN; type++) {
+                        int[] promoted = own.clone();
+                        promoted[i] = type;
+                        addCanonical(side == 0 ? promoted : other, side == 0 ? other : promoted, names);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addCanonical(int[] white, int[] black, List<String> names) {
+        int[] w = sorted(white, white.length), b = sorted(black, black.length);
+        String name = compare(b, w) > 0 ? name(b, w) : name(w, b);
+        if (!names.contains(name)) names.add(name);
+    }
+
+    // Non-king piece types of each side, strongest first
+    private static int[][] material(Position position) {
+        int[] white = new int[16], black = new int[16];
+        int whiteCount = 0, blackCount = 0;
+        for (int type = Position.QUEEN; type >= Position.PAWN; type--) {
+            for (int i = Long.bitCount(position.pieces(Position.WHITE, type)); i > 0; i--) white[whiteCount++] = type;
+            for (int i = Long.bitCount(position.pieces(Position.BLACK, type)); i > 0; i--) black[blackCount++] = type;
+        }
+        int[] w = sorted(white, whiteCount), b = sorted(black, blackCount);
+        return compare(b, w) > 0 ? new int[][]{b, w} : new int[][]{w, b};
+    }
+
+    // Six bits per side, three per piece type strongest first, as probe computes it from the bitboards
+    private static int materialIndex(int[] white, int[] black) {
+        int whiteCode = 0, blackCode = 0;
+        for (int type : white) whiteCode = (whiteCode << 3) | (type + 1);
+        for (int type : black) blackCode = (blackCode << 3) | (type + 1);
+        return (whiteCode << 6) | blackCode;
+    }
+
+    private static int[] sorted(int[] types, int count) {
+        int[] result = Arrays.copyOf(types, count);
+        Arrays.sort(result);
+        for (int i = 0; i < count / 2; i++) {
+            int swap = result[i];
+            result[i] = result[count - 1 - i];
+            result[count - 1 - i] = swap;
+        }
+        return result;
+    }
+
+    // More pieces first, then the stronger pieces
+    private static int compare(int[] a, int[] b) {
+        if (a.length != b.length) return Integer.compare(a.length, b.length);
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] != b[i]) return Integer.compare(a[i], b[i]);
+        }
+        return 0;
+    }
+
+    private static String name(int[] white, int[] black) {
+        StringBuilder sb = new StringBuilder("K");
+        for (int type : white) sb.append(PIECE_LETTERS.charAt(type));
+        sb.append("vK");
+        for (int type : black) sb.append(PIECE_LETTERS.charAt(type));
+        return sb.toString();
+    }
+
+    private static int[][] parse(String name) {
+        String[] sides = name.split("v");
+        int[][] material = new int[2][];
+        for (int side = 0; side < 2; side++) {
+            String pieces = sides[side].substring(1);
+            material[side] = new int[pieces.length()];
+            for (int i = 0; i < pieces.length(); i++) {
+                material[side][i] = PIECE_LETTERS.indexOf(pieces.charAt(i));
+            }
+        }
+        return material;
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.chess.engine;
+
+// Time budget for one move. The soft limit is checked between iterations and stretched or shrunk by how
+// settled the search looks; the hard limit is polled inside the tree and never exceeded.
+public class TimeManager {
+    private static final long MOVE_OVERHEAD_MS = 50; // Animation, scheduling and clock granularity
+    private static final int DEFAULT_MOVES_TO_GO = 30; // Sudden death: assume the game goes on this long
+    private static final int DROP_MARGIN = 30; // Score fall (centipawns) between iterations treated as a fail-low
+
+    private final long searchStartNanos = System.nanoTime();
+    // Set from the UI thread on a ponder hit while the search is running
+    private volatile long clockStartNanos = searchStartNanos;
+    private volatile long softNanos = Long.MAX_VALUE;
+    private volatile long hardNanos = Long.MAX_VALUE;
+    private int previousBestMove = Move.NONE;
+    private int previousScore;
+    private int stableIterations;
+
+    private TimeManager() {
+    }
+
+    // Budget from the side's clock; movesToGo is 0 when the time control has no move count
+    public static TimeManager forClock(long remainingMillis, long incrementMillis, int movesToGo) {
+        TimeManager timeManager = new TimeManager();
+        timeManager.useClock(remainingMillis, incrementMillis, movesToGo);
+        return timeManager;
+    }
+
+    // Fixed thinking time, the search may still stop early when the best move is settled
+    public static TimeManager forMoveTime(long millis) {
+        TimeManager timeManager = new TimeManager();
+        timeManager.setLimits(millis, millis);
+        return timeManager;
+    }
+
+    // No limits until ponderHit, for searching on the opponent's time
+    public static TimeManager forPondering() {
+        return new TimeManager();
+    }
+
+    // The opponent played the expected move and the clock starts now, with the limits of budget. Time spent
+    // pondering counts towards the soft limit; returns true when the search has already thought long enough.
+    public boolean ponderHit(TimeManager budget) {
+        clockStartNanos = System.nanoTime(); // Before the limits, so the hard check never pairs them with the old start
+        softNanos = budget.softNanos;
+        hardNanos = budget.hardNanos;
+        return clockStartNanos - searchStartNanos >= softNanos / 2;
+    }
+
+    private void useClock(long remainingMillis, long incrementMillis, int movesToGo) {
+        long available = Math.max(1, remainingMillis - MOVE_OVERHEAD_MS);
+        int moves = movesToGo > 0 ? Math.min(movesToGo, 50) : DEFAULT_MOVES_TO_GO;
+        long soft = available / moves + incrementMillis * 3 / 4;
+        // Never risk more than a fraction of the clock on one move, unless it is the last one before the control
+        long hard = Math.min(soft * 3, moves == 1 ? available * 9 / 10 : available / 3);
+        setLimits(soft, hard);
+    }
+
+    private void setLimits(long softMillis, long hardMillis) {
+        long hard = Math.max(1, hardMillis) * 1_000_000;
+        softNanos = Math.min(Math.max(1, softMillis) * 1_000_000, hard);
+        hardNanos = hard;
+    }
+
+    // Never more than maxMillis on this move, whatever the clock allows; for a server sharing its threads
+    public TimeManager capAt(long maxMillis) {
+        setLimits(Math.min(softNanos / 1_000_000, maxMillis), Math.min(hardNanos / 1_000_000, maxMillis));
+        return this;
+    }
+
+    public boolean hardLimitReached() {
+        return System.nanoTime() - clockStartNanos >= hardNanos;
+    }
+
+    // Called after each finished iteration, returns true when another one is not worth starting
+    public boolean iterationFinished(int bestMove, int score) {
+        if (score >= Search.MATE_SCORE - Search.MAX_PLY) return true; // Forced mate found, deeper won't change it
+        boolean changed = bestMove != previousBestMove;
+        stableIterations = changed ? 0 : stableIterations + 1;
+        boolean dropped = previousBestMove != Move.NONE && score < previousScore - DROP_MARGIN;
+        boolean first = previousBestMove == Move.NONE;
+        previousBestMove = bestMove;
+        previousScore = score;
+
+        long soft = softNanos;
+        if (soft == Long.MAX_VALUE) return false; // Still pondering
+        double scale = 1.0;
+        if (changed && !first) scale *= 1.5; // Unstable PV: keep looking
+        if (dropped) scale *= 1.5; // Fail-low: the expected move got worse, find an alternative
+        if (stableIterations >= 5) {
+            scale *= 0.5; // One move clearly dominates
+        } else if (stableIterations >= 3) {
+            scale *= 0.75;
+        }
+        // The next iteration usually costs more than all previous ones together, don't start it late
+        long now = System.nanoTime();
+        return now - searchStartNanos >= (long) (soft * scale * 0.6) || hardLimitReached();
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.chess.engine;
+
+// Fixed-size hash table of search results, stored in two parallel long arrays.
+// Entries are grouped in buckets of four; within a bucket the shallowest (or oldest) entry is replaced.
+// The key slot holds key ^ data so a torn read from another thread simply fails verification.
+public class TranspositionTable {
+    public static final int UPPER_BOUND = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int EXACT = 3;
+
+    private static final int BUCKET_SIZE = 4;
+    private static final int ENTRY_BYTES = 16;
+
+    // data layout: move (bits 0-15), depth (16-23), bound (24-25), age (26-31), score (32-63, signed)
+    private static final int DEPTH_SHIFT = 16;
+    private static final int BOUND_SHIFT = 24;
+    private static final int AGE_SHIFT = 26;
+    private static final int SCORE_SHIFT = 32;
+    private static final int AGE_MASK = 0x3F;
+
+    private long[] keys;
+    private long[] data;
+    private long bucketMask;
+    private int age;
+
+    public TranspositionTable(int megabytes) {
+        resize(megabytes);
+    }
+
+    // Leaves the table empty; the arrays are kept when the size does not change
+    public void resize(int megabytes) {
+        long entries = Math.max(BUCKET_SIZE, (long) megabytes * 1024 * 1024 / ENTRY_BYTES);
+        long buckets = Long.highestOneBit(entries / BUCKET_SIZE);
+        if (keys != null && keys.length == buckets * BUCKET_SIZE) {
+            clear();
+            return;
+        }
+        keys = new long[(int) (buckets * BUCKET_SIZE)];
+        data = new long[keys.length];
+        bucketMask = buckets - 1;
+        age = 0;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(keys, 0L);
+        java.util.Arrays.fill(data, 0L);
+        age = 0;
+    }
+
+    // Called once per root search so entries from earlier moves lose their priority
+    public void newSearch() {
+        age = (age + 1) & AGE_MASK;
+    }
+
+    // Returns the packed entry for the key, or 0 when there is none
+    public long probe(long key) {
+        int index = (int) (key & bucketMask) * BUCKET_SIZE;
+        for (int i = index; i < index + BUCKET_SIZE; i++) {
+            long entry = data[i];
+            if ((keys[i] ^ entry) == key && entry != 0) return entry;
+        }
+        return 0L;
+    }
+
+    public void store(long key, int move, int depth, int bound, int score) {
+        int index = (int) (key & bucketMask) * BUCKET_SIZE;
+        int replace = index;
+        int worstPriority = Integer.MAX_VALUE;
+        for (int i = index; i < index + BUCKET_SIZE; i++) {
+            long entry = data[i];
+            if (entry == 0 || (keys[i] ^ entry) == key) {
+                // Same position: keep the old best move if this search did not find one
+                if (entry != 0 && move == Move.NONE) move = move(entry);
+                if (entry != 0 && bound != EXACT && depth < depth(entry) - 2 && age(entry) == age) return;
+                replace = i;
+                break;
+            }
+            int priority = depth(entry) - 8 * ((age - age(entry)) & AGE_MASK);
+            if (priority < worstPriority) {
+                worstPriority = priority;
+                replace = i;
+            }
+        }
+        long entry = (move & 0xFFFFL)
+                | ((long) Math.min(depth, 255) << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) age << AGE_SHIFT)
+                | ((long) score << SCORE_SHIFT);
+        data[replace] = entry;
+        keys[replace] = key ^ entry;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFFL);
+    }
+
+    public static int depth(long entry) {
+        return (int) ((entry >>> DEPTH_SHIFT) & 0xFF);
+    }
+
+    public static int bound(long entry) {
+        return (int) ((entry >>> BOUND_SHIFT) & 0x3);
+    }
+
+    public static int score(long entry) {
+        return (int) (entry >> SCORE_SHIFT);
+    }
+
+    private static int age(long entry) {
+        return (int) ((entry >>> AGE_SHIFT) & AGE_MASK);
+    }
+}
@@ -0,0 +1,338 @@
+package org.example.chess.engine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Headless engine speaking UCI over stdin/stdout, for GUIs like cutechess-cli, scripts and load tests.
+// chess-core has no JavaFX dependency, so the toolkit is never loaded:
+//   java -jar chess-core-1.0-SNAPSHOT.jar
+// Commands are read line by line and tokenized in place; the search runs on its own thread so stop and
+// ponderhit are handled while it thinks.
+public class UciEngine {
+    private static final int DEFAULT_HASH_MB = 32;
+    private static final int MAX_HASH_MB = 4096;
+    private static final int MAX_THREADS = 256;
+
+    private final PrintStream out;
+    private final TranspositionTable transpositionTable = new TranspositionTable(DEFAULT_HASH_MB);
+    private final Tablebases tablebases = new Tablebases(Path.of("tablebases"));
+    private final SearchThreads searchThreads = new SearchThreads(transpositionTable, tablebases, 1);
+    private final Position position = Position.fromFen(Position.START_FEN);
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "uci-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Future<?> searchTask;
+    private AtomicBoolean stop = new AtomicBoolean();
+    private TimeManager timeManager; // Of the running search, null without time limits
+    private TimeManager ponderBudget; // Limits that apply once the pondered move is played
+    private boolean pondering;
+    private boolean infinite;
+    // Ponder and infinite searches keep their bestmove until stop or ponderhit, as the protocol asks
+    private final Object bestMoveLock = new Object();
+    private boolean holdBestMove;
+
+    // Current command line and the token being looked at
+    private String line;
+    private int tokenStart;
+    private int tokenEnd;
+
+    public UciEngine(PrintStream out) {
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.US_ASCII));
+        new UciEngine(System.out).run(in);
+    }
+
+    public void run(BufferedReader in) throws IOException {
+        String command;
+        while ((command = in.readLine()) != null) {
+            if (!handle(command)) break;
+        }
+        stopSearch();
+    }
+
+    // Returns false on quit
+    private boolean handle(String command) {
+        line = command;
+        tokenEnd = 0;
+        if (!nextToken()) return true;
+        if (token("uci")) {
+            out.println("id name ChessTop");
+            out.println("id author FAT241");
+            out.println("option name Hash type spin default " + DEFAULT_HASH_MB + " min 1 max " + MAX_HASH_MB);
+            out.println("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+            out.println("option name Ponder type check default false");
+            out.println("uciok");
+        } else if (token("isready")) {
+            out.println("readyok");
+        } else if (token("ucinewgame")) {
+            stopSearch();
+            transpositionTable.clear();
+            searchThreads.clearHistory();
+            position.load(Position.START_FEN);
+        } else if (token("setoption")) {
+            stopSearch();
+            setOption();
+        } else if (token("position")) {
+            stopSearch();
+            setPosition();
+        } else if (token("go")) {
+            stopSearch();
+            go();
+        } else if (token("stop")) {
+            stopSearch(); // Waits for the bestmove, so no finished search is left behind for quit
+        } else if (token("ponderhit")) {
+            ponderHit();
+        } else if (token("quit")) {
+            return false;
+        }
+        // Anything else is ignored, as the protocol asks
+        return true;
+    }
+
+    // setoption name <id> value <x>
+    private void setOption() {
+        if (!nextToken() || !token("name") || !nextToken()) return;
+        int nameStart = tokenStart, nameEnd = tokenEnd;
+        if (!nextToken() || !token("value")) return;
+        long value = number();
+        if (regionIs(nameStart, nameEnd, "Hash")) {
+            transpositionTable.resize((int) Math.max(1, Math.min(value, MAX_HASH_MB))); // Empty afterwards
+        } else if (regionIs(nameStart, nameEnd, "Threads")) {
+            searchThreads.setThreads((int) Math.max(1, Math.min(value, MAX_THREADS)));
+            searchThreads.clearHistory(); // New helpers start from nothing, so does the main search
+        }
+        // Ponder only tells us the GUI may send go ponder, nothing to configure
+    }
+
+    // position startpos|fen <fen> [moves <move>...]
+    private void setPosition() {
+        if (!nextToken()) return;
+        if (token("startpos")) {
+            position.load(Position.START_FEN);
+            nextToken();
+        } else if (token("fen")) {
+            int fenStart = -1, fenEnd = -1;
+            while (nextToken() && !token("moves")) {
+                if (fenStart < 0) fenStart = tokenStart;
+                fenEnd = tokenEnd;
+            }
+            if (fenStart < 0) return;
+            Position parsed = parseFen(line.substring(fenStart, fenEnd));
+            if (parsed == null) {
+                out.println("info string invalid fen"); // The previous position stays
+                return;
+            }
+            position.copyFrom(parsed);
+        } else {
+            return;
+        }
+        if (!token("moves")) return;
+        while (nextToken()) {
+            String text = line.substring(tokenStart, tokenEnd);
+            int move = Notation.parseUci(position, text);
+            if (move == Move.NONE) {
+                out.println("info string illegal move " + text);
+                return;
+            }
+            position.makeMove(move); // Kept in the history, so repetitions across the game are seen
+        }
+    }
+
+    // null unless the FEN gives one king per side and the side not to move is not in check
+    private static Position parseFen(String fen) {
+        Position parsed;
+        try {
+            parsed = Position.fromFen(fen);
+        } catch (RuntimeException e) {
+            return null; // Bad piece letter, too many squares, unreadable counters
+        }
+        if (Long.bitCount(parsed.pieces(Position.WHITE, Position.KING)) != 1
+                || Long.bitCount(parsed.pieces(Position.BLACK, Position.KING)) != 1
+                || parsed.isInCheck(1 - parsed.getSideToMove())) {
+            return null;
+        }
+        return parsed;
+    }
+
+    // go [wtime|btime|winc|binc|movestogo|movetime|depth|nodes <x>] [infinite] [ponder]
+    private void go() {
+        long whiteTime = -1, blackTime = -1, whiteIncrement = 0, blackIncrement = 0;
+        long moveTime = 0, nodes = 0;
+        int movesToGo = 0, depth = 0;
+        boolean ponder = false;
+        infinite = false;
+        while (nextToken()) {
+            if (token("wtime")) whiteTime = number();
+            else if (token("btime")) blackTime = number();
+            else if (token("winc")) whiteIncrement = number();
+            else if (token("binc")) blackIncrement = number();
+            else if (token("movestogo")) movesToGo = (int) number();
+            else if (token("movetime")) moveTime = number();
+            else if (token("depth")) depth = (int) number();
+            else if (token("nodes")) nodes = number();
+            else if (token("infinite")) infinite = true;
+            else if (token("ponder")) ponder = true;
+        }
+
+        boolean white = position.getSideToMove() == Position.WHITE;
+        long remaining = white ? whiteTime : blackTime;
+        if (remaining < 0) {
+            remaining = white ? blackTime : whiteTime; // Only the opponent's clock was sent: assume ours is no better
+        }
+        long increment = white ? whiteIncrement : blackIncrement;
+        TimeManager budget = null; // No limit: depth, nodes or stop end the search
+        if (moveTime > 0) {
+            budget = TimeManager.forMoveTime(moveTime);
+        } else if (remaining >= 0) {
+            budget = TimeManager.forClock(remaining, increment, movesToGo);
+        }
+        pondering = ponder;
+        ponderBudget = ponder ? budget : null;
+        timeManager = ponder ? TimeManager.forPondering() : infinite ? null : budget;
+        int maxDepth = depth > 0 ? Math.min(depth, Search.MAX_PLY - 1) : Search.MAX_PLY - 1;
+        synchronized (bestMoveLock) {
+            holdBestMove = ponder || infinite;
+        }
+
+        Position snapshot = position.copy();
+        AtomicBoolean flag = new AtomicBoolean();
+        stop = flag;
+        TimeManager limits = timeManager;
+        long startNanos = System.nanoTime();
+        Search main = searchThreads.main();
+        main.setNodeLimit(nodes);
+        main.setIterationListener(completed -> printInfo(completed, startNanos));
+        tablebases.prepare(snapshot);
+        searchTask = searchExecutor.submit(() -> {
+            int count = MoveGenerator.generateLegal(snapshot, new int[MoveGenerator.MAX_MOVES], 0);
+            int bestMove = count == 0 ? Move.NONE : searchThreads.search(snapshot, flag, limits, maxDepth);
+            waitForRelease();
+            printBestMove(bestMove);
+        });
+    }
+
+    // The expected move was played: the ponder search goes on under the real limits
+    private void ponderHit() {
+        if (!pondering || timeManager == null) return;
+        pondering = false;
+        if (ponderBudget != null && timeManager.ponderHit(ponderBudget)) {
+            stop.set(true); // Pondered long enough already
+        }
+        if (!infinite) releaseBestMove();
+    }
+
+    private void stopSearch() {
+        if (searchTask == null) return;
+        stop.set(true);
+        releaseBestMove();
+        try {
+            searchTask.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Search failed: " + e.getCause());
+        }
+        searchTask = null;
+    }
+
+    private void releaseBestMove() {
+        synchronized (bestMoveLock) {
+            holdBestMove = false;
+            bestMoveLock.notifyAll();
+        }
+    }
+
+    private void waitForRelease() {
+        synchronized (bestMoveLock) {
+            while (holdBestMove) {
+                try {
+                    bestMoveLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void printInfo(int depth, long startNanos) {
+        Search main = searchThreads.main();
+        long millis = (System.nanoTime() - startNanos) / 1_000_000;
+        long nodes = searchThreads.getNodes();
+        StringBuilder sb = new StringBuilder("info depth ").append(depth);
+        int score = main.getBestScore();
+        if (Math.abs(score) >= Search.MATE_SCORE - Search.MAX_PLY) {
+            int plies = Search.MATE_SCORE - Math.abs(score);
+            sb.append(" score mate ").append(score > 0 ? (plies + 1) / 2 : -(plies / 2));
+        } else {
+            sb.append(" score cp ").append(score);
+        }
+        sb.append(" nodes ").append(nodes)
+                .append(" nps ").append(nodes * 1000 / Math.max(1, millis))
+                .append(" time ").append(millis)
+                .append(" pv");
+        for (int move : main.getPrincipalVariation()) {
+            sb.append(' ').append(Move.toUci(move));
+        }
+        out.println(sb);
+    }
+
+    private void printBestMove(int bestMove) {
+        if (bestMove == Move.NONE) {
+            out.println("bestmove 0000"); // Mate or stalemate on the board
+            return;
+        }
+        int[] pv = searchThreads.main().getPrincipalVariation();
+        if (pv.length >= 2 && pv[0] == bestMove) {
+            out.println("bestmove " + Move.toUci(bestMove) + " ponder " + Move.toUci(pv[1]));
+        } else {
+            out.println("bestmove " + Move.toUci(bestMove));
+        }
+    }
+
+    // Moves to the next whitespace-separated token of the line, false at the end
+    private boolean nextToken() {
+        int i = tokenEnd, length = line.length();
+        while (i < length && Character.isWhitespace(line.charAt(i))) i++;
+        tokenStart = i;
+        while (i < length && !Character.isWhitespace(line.charAt(i))) i++;
+        tokenEnd = i;
+        return tokenStart < tokenEnd;
+    }
+
+    private boolean token(String word) {
+        return regionIs(tokenStart, tokenEnd, word);
+    }
+
+    private boolean regionIs(int start, int end, String word) {
+        return end - start == word.length() && line.regionMatches(true, start, word, 0, word.length());
+    }
+
+    // Integer value of the next token, parsed in place (clock times may be negative)
+    private long number() {
+        if (!nextToken()) return 0;
+        int i = tokenStart;
+        boolean negative = line.charAt(i) == '-';
+        if (negative) i++;
+        long value = 0;
+        for (; i < tokenEnd && Character.isDigit(line.charAt(i)); i++) {
+            value = value * 10 + (line.charAt(i) - '0');
+        }
+        return negative ? -value : value;
+    }
+}
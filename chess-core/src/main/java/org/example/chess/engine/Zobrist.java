@@ -0,0 +1,59 @@
+package org.example.chess.engine;
+
+import java.util.SplittableRandom;
+
+// Random keys for incremental 64-bit position hashing. The seed is fixed so keys are stable between runs.
+public final class Zobrist {
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long SIDE_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x2545F4914F6CDD1DL);
+        for (int piece = 0; piece < 12; piece++) {
+            for (int square = 0; square < 64; square++) {
+                PIECE_SQUARE[piece][square] = random.nextLong();
+            }
+        }
+        for (int rights = 0; rights < 16; rights++) {
+            CASTLING[rights] = random.nextLong();
+        }
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+        SIDE_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    public static long piece(int piece, int square) {
+        return PIECE_SQUARE[piece][square];
+    }
+
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    public static long enPassant(int square) {
+        return square < 0 ? 0L : EN_PASSANT_FILE[square & 7];
+    }
+
+    public static long sideToMove() {
+        return SIDE_TO_MOVE;
+    }
+
+    // Full recomputation, used after loading a FEN and to verify the incremental key
+    public static long compute(Position position) {
+        long key = 0L;
+        for (int square = 0; square < 64; square++) {
+            int piece = position.pieceAt(square);
+            if (piece != Position.EMPTY) key ^= PIECE_SQUARE[piece][square];
+        }
+        key ^= CASTLING[position.getCastlingRights()];
+        key ^= enPassant(position.getEnPassantSquare());
+        if (position.getSideToMove() == Position.BLACK) key ^= SIDE_TO_MOVE;
+        return key;
+    }
+}
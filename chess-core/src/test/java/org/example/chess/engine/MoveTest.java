@@ -0,0 +1,60 @@
+package org.example.chess.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoveTest {
+    @Test
+    void squaresAndFlagsFitInSixteenBits() {
+        int[] flags = {0, Move.DOUBLE_PUSH, Move.CASTLING, Move.CAPTURE, Move.EN_PASSANT};
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                for (int flag : flags) {
+                    int move = Move.of(from, to, flag);
+                    assertEquals(move & 0xFFFF, move);
+                    assertEquals(from, Move.from(move));
+                    assertEquals(to, Move.to(move));
+                    assertEquals(flag == Move.CAPTURE || flag == Move.EN_PASSANT, Move.isCapture(move));
+                    assertEquals(flag == Move.EN_PASSANT, Move.isEnPassant(move));
+                    assertEquals(flag == Move.CASTLING, Move.isCastling(move));
+                    assertEquals(flag == Move.DOUBLE_PUSH, Move.isDoublePush(move));
+                    assertFalse(Move.isPromotion(move));
+                }
+            }
+        }
+    }
+
+    @Test
+    void promotions() {
+        for (int type = Position.KNIGHT; type <= Position.QUEEN; type++) {
+            for (int flag : new int[]{0, Move.CAPTURE}) {
+                int move = Move.promotion(52, flag == 0 ? 60 : 61, type, flag);
+                assertEquals(move & 0xFFFF, move);
+                assertTrue(Move.isPromotion(move));
+                assertEquals(type, Move.promotionType(move));
+                assertEquals(flag != 0, Move.isCapture(move));
+                assertFalse(Move.isEnPassant(move));
+                assertFalse(Move.isCastling(move));
+                assertFalse(Move.isDoublePush(move));
+                assertEquals(52, Move.from(move));
+            }
+        }
+        assertEquals("e7f8q", Move.toUci(Move.promotion(52, 61, Position.QUEEN, Move.CAPTURE)));
+        assertEquals("a2a1n", Move.toUci(Move.promotion(8, 0, Position.KNIGHT, 0)));
+    }
+
+    @Test
+    void generatedMovesRoundTripThroughUci() {
+        for (String[] reference : Perft.REFERENCE_POSITIONS) {
+            Position position = Position.fromFen(reference[0]);
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            int count = MoveGenerator.generateLegal(position, moves, 0);
+            for (int i = 0; i < count; i++) {
+                assertEquals(moves[i], Notation.parseUci(position, Move.toUci(moves[i])), reference[0]);
+            }
+        }
+    }
+}
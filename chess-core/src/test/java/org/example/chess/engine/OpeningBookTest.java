@@ -0,0 +1,66 @@
+package org.example.chess.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Keys against the examples of the Polyglot format description, and a small book written here
+class OpeningBookTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void publishedKeys() {
+        assertKey(0x463B96181691FC9CL, "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        assertKey(0x823C9B50FD114196L, "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+        assertKey(0x0756B94461C50FB0L, "rnbqkbnr/ppp1pppp/8/3p4/4P3/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 2");
+        assertKey(0x662FAFB965DB29D4L, "rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR b KQkq - 0 2");
+        assertKey(0x22A48B5A8E47FF78L, "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3");
+        assertKey(0x652A607CA3F242C1L, "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPPKPPP/RNBQ1BNR b kq - 0 3");
+        assertKey(0x00FDD303C946BDD9L, "rnbq1bnr/ppp1pkpp/8/3pPp2/8/8/PPPPKPPP/RNBQ1BNR w - - 0 4");
+        assertKey(0x3C8123EA7B067637L, "rnbqkbnr/p1pppppp/8/8/PpP4P/8/1P1PPPP1/RNBQKBNR b KQkq c3 0 3");
+        assertKey(0x5C3F9B829B279560L, "rnbqkbnr/p1pppppp/8/8/P6P/R1p5/1P1PPPP1/1NBQKBNR b Kkq - 0 4");
+    }
+
+    @Test
+    void probeFindsTheBookMoves() throws IOException {
+        Position start = Position.fromFen(Position.START_FEN);
+        long key = OpeningBook.key(start);
+        Path file = directory.resolve("book.bin");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+            writeEntry(out, key, 12, 28, 30); // e2e4
+            writeEntry(out, key, 11, 27, 10); // d2d4
+            writeEntry(out, key + 1, 6, 21, 1); // Another position
+        }
+        try (OpeningBook book = OpeningBook.open(file)) {
+            assertEquals(3, book.size());
+            int[] moves = new int[8];
+            int[] weights = new int[8];
+            assertEquals(2, book.probe(start, moves, weights));
+            assertEquals("e2e4", Move.toUci(moves[0]));
+            assertEquals(30, weights[0]);
+            assertEquals("d2d4", Move.toUci(moves[1]));
+            assertEquals("e2e4", Move.toUci(book.pick(start, new Random(1), 100))); // The main line
+            assertEquals(Move.NONE, book.pick(Position.fromFen("8/8/8/8/8/2k5/8/K6R w - - 0 1"), new Random(1), 1));
+        }
+    }
+
+    private static void assertKey(long expected, String fen) {
+        assertEquals(Long.toHexString(expected), Long.toHexString(OpeningBook.key(Position.fromFen(fen))), fen);
+    }
+
+    // Entries must be written in key order
+    private static void writeEntry(DataOutputStream out, long key, int from, int to, int weight) throws IOException {
+        out.writeLong(key);
+        out.writeShort(from << 6 | to);
+        out.writeShort(weight);
+        out.writeInt(0);
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.chess.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The move generator against the published perft counts, to the depths that run in a few seconds
+class PerftTest {
+    private static final long MAX_NODES = 1_000_000;
+
+    @Test
+    void referencePositions() {
+        for (String[] reference : Perft.REFERENCE_POSITIONS) {
+            int maxDepth = reference.length - 1;
+            Perft perft = new Perft(Position.fromFen(reference[0]), maxDepth);
+            for (int depth = 1; depth <= maxDepth; depth++) {
+                long expected = Long.parseLong(reference[depth]);
+                if (expected > MAX_NODES) break;
+                assertEquals(expected, perft.count(depth), reference[0] + " depth " + depth);
+            }
+        }
+    }
+
+    @Test
+    void unmakeRestoresThePosition() {
+        for (String[] reference : Perft.REFERENCE_POSITIONS) {
+            Position position = Position.fromFen(reference[0]);
+            long key = position.getKey();
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            int count = MoveGenerator.generateLegal(position, moves, 0);
+            for (int i = 0; i < count; i++) {
+                position.makeMove(moves[i]);
+                position.unmakeMove(moves[i]);
+                assertEquals(key, position.getKey(), reference[0] + " " + Move.toUci(moves[i]));
+                assertEquals(Zobrist.compute(position), position.getKey(), reference[0] + " " + Move.toUci(moves[i]));
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.chess.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StaticExchangeTest {
+    private final StaticExchange staticExchange = new StaticExchange();
+
+    @Test
+    void exchangeValues() {
+        assertSee("1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1", "e1e5", 100);
+        assertSee("1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1", "d3e5", -200);
+        assertSee("4k3/8/8/3p4/4P3/8/8/4K3 w - - 0 1", "e4d5", 100);
+        assertSee("4k3/8/2p5/3p4/4P3/8/8/4K3 w - - 0 1", "e4d5", 0);
+        assertSee("4k3/8/2p5/3p4/8/8/8/3QK3 w - - 0 1", "d1d5", -800);
+        assertSee("4k3/8/2p5/3r4/8/8/3R4/3QK3 w - - 0 1", "d2d5", 100);
+        assertSee("3qk3/3r4/8/3p4/8/3R4/3R4/3QK3 w - - 0 1", "d3d5", 100);
+    }
+
+    @Test
+    void kingCapturesOnlyUndefendedPieces() {
+        assertSee("4k3/8/8/8/8/8/4r3/4K3 w - - 0 1", "e1e2", 500);
+        assertSee("4k3/8/8/8/8/8/3pr3/4K3 w - - 0 1", "e1e2", 500);
+    }
+
+    @Test
+    void losingCaptures() {
+        Position position = Position.fromFen("4k3/8/2p5/3p4/8/8/8/3QK3 w - - 0 1");
+        assertTrue(staticExchange.isLosing(position, Notation.parseUci(position, "d1d5")));
+        position = Position.fromFen("4k3/8/8/3p4/4P3/8/8/4K3 w - - 0 1");
+        assertFalse(staticExchange.isLosing(position, Notation.parseUci(position, "e4d5")));
+    }
+
+    private void assertSee(String fen, String uci, int expected) {
+        Position position = Position.fromFen(fen);
+        int move = Notation.parseUci(position, uci);
+        assertEquals(expected, staticExchange.evaluate(position, move), fen + " " + uci);
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.chess.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Generates the small rook and queen endings and checks them against the known longest mates
+class TablebasesTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void rookEnding() {
+        Tablebases tablebases = new Tablebases(directory);
+        tablebases.ensure("KRvK");
+        assertTrue(Files.exists(directory.resolve("KRvK.tbl")));
+        // KRvK takes at most 16 moves to mate
+        assertEquals(31, longestWin(tablebases, "KRvK"));
+        assertMatesAlongBestMoves(tablebases, "8/8/8/8/8/2k5/8/K6R w - - 0 1");
+        // Reloaded from the file, not generated again
+        Tablebases reloaded = new Tablebases(directory);
+        reloaded.ensure("KRvK");
+        Position position = Position.fromFen("8/8/8/8/8/2k5/8/K6R w - - 0 1");
+        assertEquals(tablebases.probeScore(position, 0), reloaded.probeScore(position, 0));
+    }
+
+    @Test
+    void queenEnding() {
+        Tablebases tablebases = new Tablebases(directory);
+        tablebases.ensure("KQvK");
+        // KQvK takes at most 10 moves to mate
+        assertEquals(19, longestWin(tablebases, "KQvK"));
+        // Black to move can take the undefended queen
+        Position position = Position.fromFen("8/8/8/8/8/8/3kQ3/7K b - - 0 1");
+        assertEquals(0, tablebases.probeScore(position, 0));
+        // Colours are flipped for the stronger black side
+        position = Position.fromFen("k7/8/8/8/8/8/7q/K7 b - - 0 1");
+        assertTrue(tablebases.probeScore(position, 0) > Search.MATE_SCORE - Search.MAX_PLY);
+    }
+
+    // The search probes straight from the bitboards; it must land on the entries the generator looks up
+    @Test
+    void probeAgreesWithLookup() {
+        Tablebases tablebases = new Tablebases(directory);
+        tablebases.ensure("KRvK");
+        int[] squares = new int[Tablebases.MAX_PIECES];
+        for (int rookColor = Position.WHITE; rookColor <= Position.BLACK; rookColor++) {
+            for (int side = Position.WHITE; side <= Position.BLACK; side++) {
+                for (int whiteKing = 0; whiteKing < 64; whiteKing++) {
+                    for (int blackKing = 0; blackKing < 64; blackKing += 3) {
+                        for (int rook = 0; rook < 64; rook++) {
+                            if (whiteKing == blackKing || rook == whiteKing || rook == blackKing) continue;
+                            if (Math.abs((whiteKing & 7) - (blackKing & 7)) <= 1 && Math.abs((whiteKing >> 3) - (blackKing >> 3)) <= 1) continue;
+                            int rookPiece = Position.piece(rookColor, Position.ROOK);
+                            Position position = new Position();
+                            position.put(whiteKing, Position.piece(Position.WHITE, Position.KING));
+                            position.put(blackKing, Position.piece(Position.BLACK, Position.KING));
+                            position.put(rook, rookPiece);
+                            position.setSideToMove(side);
+                            if (position.isInCheck(1 - side)) continue;
+                            long expected = tablebases.lookup(new int[]{
+                                    whiteKing, Position.piece(Position.WHITE, Position.KING),
+                                    blackKing, Position.piece(Position.BLACK, Position.KING),
+                                    rook, rookPiece}, side);
+                            int plies = (int) (expected >>> 2);
+                            int score = switch ((int) (expected & 3)) {
+                                case Tablebase.WIN -> Search.MATE_SCORE - plies;
+                                case Tablebase.LOSS -> -Search.MATE_SCORE + plies;
+                                default -> 0;
+                            };
+                            assertEquals(score, tablebases.probeScore(position, 0, squares));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void materialNotCovered() {
+        Tablebases tablebases = new Tablebases(directory);
+        Position position = Position.fromFen("8/8/8/8/8/2k5/8/K6R w - - 0 1");
+        assertEquals(Tablebases.UNKNOWN, tablebases.probeScore(position, 0)); // Not generated yet
+        assertEquals(Move.NONE, tablebases.bestMove(position));
+    }
+
+    // Plays the table's best moves for both sides and expects mate within the distance it announced
+    private static void assertMatesAlongBestMoves(Tablebases tablebases, String fen) {
+        Position position = Position.fromFen(fen);
+        int score = tablebases.probeScore(position, 0);
+        assertNotEquals(Tablebases.UNKNOWN, score);
+        int plies = Search.MATE_SCORE - score;
+        for (int ply = 0; ply < plies; ply++) {
+            int move = tablebases.bestMove(position);
+            assertNotEquals(Move.NONE, move);
+            position.makeMove(move);
+        }
+        assertFalse(MoveGenerator.hasLegalMove(position));
+        assertTrue(position.isInCheck());
+    }
+
+    // Longest win in plies over every position with White to move, found by probing them all
+    private static int longestWin(Tablebases tablebases, String name) {
+        int longest = 0;
+        int rookOrQueen = name.equals("KRvK") ? Position.ROOK : Position.QUEEN;
+        for (int whiteKing = 0; whiteKing < 64; whiteKing++) {
+            for (int blackKing = 0; blackKing < 64; blackKing++) {
+                for (int piece = 0; piece < 64; piece++) {
+                    if (whiteKing == blackKing || piece == whiteKing || piece == blackKing) continue;
+                    if (Math.abs((whiteKing & 7) - (blackKing & 7)) <= 1 && Math.abs((whiteKing >> 3) - (blackKing >> 3)) <= 1) continue;
+                    Position position = new Position();
+                    position.put(whiteKing, Position.piece(Position.WHITE, Position.KING));
+                    position.put(blackKing, Position.piece(Position.BLACK, Position.KING));
+                    position.put(piece, Position.piece(Position.WHITE, rookOrQueen));
+                    if (position.isInCheck(Position.BLACK)) continue;
+                    int score = tablebases.probeScore(position, 0);
+                    if (score > 0 && score != Tablebases.UNKNOWN) longest = Math.max(longest, Search.MATE_SCORE - score);
+                }
+            }
+        }
+        return longest;
+    }
+}
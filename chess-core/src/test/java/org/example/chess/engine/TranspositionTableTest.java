@@ -0,0 +1,49 @@
+package org.example.chess.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TranspositionTableTest {
+    private static final long KEY = 0x9D39247E33776D41L;
+
+    @Test
+    void entryFieldsRoundTrip() {
+        TranspositionTable table = new TranspositionTable(1);
+        int move = Move.promotion(52, 61, Position.QUEEN, Move.CAPTURE);
+        int[] scores = {0, 1, -1, 35, -2500, Search.MATE_SCORE - 7, -Search.MATE_SCORE + 12};
+        int[] bounds = {TranspositionTable.UPPER_BOUND, TranspositionTable.LOWER_BOUND, TranspositionTable.EXACT};
+        for (int score : scores) {
+            for (int bound : bounds) {
+                table.clear();
+                table.store(KEY, move, 17, bound, score);
+                long entry = table.probe(KEY);
+                assertEquals(move, TranspositionTable.move(entry));
+                assertEquals(17, TranspositionTable.depth(entry));
+                assertEquals(bound, TranspositionTable.bound(entry));
+                assertEquals(score, TranspositionTable.score(entry));
+            }
+        }
+    }
+
+    @Test
+    void missesAndDepthLimit() {
+        TranspositionTable table = new TranspositionTable(1);
+        assertEquals(0L, table.probe(KEY));
+        table.store(KEY, Move.of(12, 28, Move.DOUBLE_PUSH), 300, TranspositionTable.EXACT, 20);
+        assertEquals(255, TranspositionTable.depth(table.probe(KEY)));
+        assertEquals(0L, table.probe(KEY ^ (1L << 40))); // Same bucket, other position
+    }
+
+    @Test
+    void keepsTheBestMoveWhenANewSearchFoundNone() {
+        TranspositionTable table = new TranspositionTable(1);
+        int move = Move.of(6, 21, 0);
+        table.store(KEY, move, 4, TranspositionTable.LOWER_BOUND, 50);
+        table.store(KEY, Move.NONE, 6, TranspositionTable.UPPER_BOUND, -10);
+        long entry = table.probe(KEY);
+        assertEquals(move, TranspositionTable.move(entry));
+        assertEquals(6, TranspositionTable.depth(entry));
+        assertEquals(-10, TranspositionTable.score(entry));
+    }
+}
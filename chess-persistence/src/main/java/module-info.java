@@ -0,0 +1,6 @@
+module org.example.chess.persistence {
+    requires transitive java.sql;
+    requires org.example.chess.core;
+
+    exports org.example.chess.persistence;
+}
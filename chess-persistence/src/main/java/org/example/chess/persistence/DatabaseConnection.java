@@ -1,4 +1,4 @@
-package org.example.chess;
+package org.example.chess.persistence;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
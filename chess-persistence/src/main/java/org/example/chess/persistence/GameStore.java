@@ -0,0 +1,61 @@
+package org.example.chess.persistence;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Finished games in the games table. Every call opens its own connection; errors go back to the caller,
+// which decides how to show them.
+public class GameStore {
+    private GameStore() {
+    }
+
+    public static void save(String winner, String pgn, int moveCount, long duration, String difficulty,
+                            String timeLimit, String gameMode) throws SQLException {
+        String sql = "INSERT INTO games (winner, pgn, move_count, duration, difficulty, time_limit, game_mode) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, winner);
+            pstmt.setString(2, pgn);
+            pstmt.setInt(3, moveCount);
+            pstmt.setLong(4, duration);
+            pstmt.setString(5, difficulty);
+            pstmt.setString(6, timeLimit);
+            pstmt.setString(7, gameMode);
+            pstmt.executeUpdate();
+        }
+    }
+
+    // Newest first
+    public static List<SavedGame> loadAll() throws SQLException {
+        List<SavedGame> games = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT game_id, winner, played_date, pgn, move_count, duration, difficulty, time_limit, game_mode FROM games ORDER BY played_date DESC");
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                games.add(new SavedGame(rs.getInt("game_id"), rs.getString("winner"), rs.getString("played_date"),
+                        rs.getString("pgn"), rs.getInt("move_count"), rs.getInt("duration"),
+                        rs.getString("difficulty"), rs.getString("time_limit"), rs.getString("game_mode")));
+            }
+        }
+        return games;
+    }
+
+    public static void delete(int gameId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("DELETE FROM games WHERE game_id = ?")) {
+            pstmt.setInt(1, gameId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    public static void deleteAll() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("DELETE FROM games")) {
+            pstmt.executeUpdate();
+        }
+    }
+}
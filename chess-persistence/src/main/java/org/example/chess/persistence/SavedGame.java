@@ -0,0 +1,6 @@
+package org.example.chess.persistence;
+
+// One row of the games table. playedDate is the database's text form; duration is in seconds.
+public record SavedGame(int gameId, String winner, String playedDate, String pgn, int moveCount, int duration,
+                        String difficulty, String timeLimit, String gameMode) {
+}
@@ -0,0 +1,3 @@
+module org.example.chess.server {
+    requires org.example.chess.core;
+}
@@ -0,0 +1,104 @@
+package org.example.chess.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// One client socket. Reading and writing happen on the selector thread only; send may be called from any
+// thread (the engine threads push their moves), it queues the line and asks the selector to flush it.
+final class Connection {
+    static final int MAX_LINE = 1024;
+    private static final int MAX_PENDING_LINES = 10_000; // A client that stops reading is dropped
+
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final Consumer<Connection> writeRequest;
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(4096);
+    private final StringBuilder line = new StringBuilder();
+    private final Queue<ByteBuffer> output = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingLines = new AtomicInteger();
+    private final Set<GameSession> sessions = new HashSet<>(); // Owned games, selector thread only
+    private volatile boolean closed;
+
+    Connection(SocketChannel channel, SelectionKey key, Consumer<Connection> writeRequest) {
+        this.channel = channel;
+        this.key = key;
+        this.writeRequest = writeRequest;
+    }
+
+    Set<GameSession> sessions() {
+        return sessions;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    void send(String text) {
+        if (closed) return;
+        if (pendingLines.incrementAndGet() > MAX_PENDING_LINES) {
+            closed = true; // The selector closes the channel on its next flush
+        } else {
+            output.add(ByteBuffer.wrap((text + "\n").getBytes(StandardCharsets.US_ASCII)));
+        }
+        writeRequest.accept(this);
+    }
+
+    // Reads what is available and hands over complete lines; false when the client is gone
+    boolean read(Consumer<String> lineHandler) throws IOException {
+        int n = channel.read(readBuffer);
+        if (n < 0) return false;
+        readBuffer.flip();
+        while (readBuffer.hasRemaining()) {
+            char c = (char) (readBuffer.get() & 0xFF);
+            if (c == '\n') {
+                String text = line.toString();
+                line.setLength(0);
+                lineHandler.accept(text);
+            } else if (c != '\r') {
+                if (line.length() >= MAX_LINE) return false; // Not a client of ours
+                line.append(c);
+            }
+        }
+        readBuffer.clear();
+        return !closed;
+    }
+
+    // Called on the selector thread after send; writes what the socket takes and keeps OP_WRITE while
+    // anything is left. False when the connection must be closed.
+    boolean flush() throws IOException {
+        if (closed) return false;
+        ByteBuffer buffer;
+        while ((buffer = output.peek()) != null) {
+            channel.write(buffer);
+            if (buffer.hasRemaining()) break;
+            output.poll();
+            pendingLines.decrementAndGet();
+        }
+        if (!key.isValid()) return false;
+        // A line queued after the peek above comes with its own write request, so OP_READ alone is safe here
+        key.interestOps(output.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        return true;
+    }
+
+    void close() {
+        closed = true;
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to do with it
+        }
+        for (GameSession session : sessions) {
+            session.abandon();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.chess.server;
+
+import org.example.chess.engine.Search;
+import org.example.chess.engine.Tablebases;
+import org.example.chess.engine.TranspositionTable;
+
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Fixed set of search threads shared by every session. Requests wait in a bounded FIFO queue; a session
+// has at most one request in it, so sessions take turns and none can crowd out the others. When the queue
+// is full the request is refused at once rather than piling up behind a backlog the clocks can't afford.
+// Each thread owns its Search; the transposition table is shared, as in Lazy SMP.
+final class EnginePool {
+    private final BlockingQueue<GameSession> queue;
+    private final Thread[] workers;
+    private final AtomicBoolean[] stops;
+    private final TranspositionTable transpositionTable;
+    private final Tablebases tablebases = new Tablebases(Path.of("tablebases"));
+    private final long maxMoveMillis;
+    private final AtomicLong searches = new AtomicLong();
+    private volatile boolean running = true;
+
+    EnginePool(int threads, int queueCapacity, int hashMegabytes, long maxMoveMillis) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity, true);
+        this.transpositionTable = new TranspositionTable(hashMegabytes);
+        this.maxMoveMillis = maxMoveMillis;
+        workers = new Thread[threads];
+        stops = new AtomicBoolean[threads];
+        for (int i = 0; i < threads; i++) {
+            AtomicBoolean stop = new AtomicBoolean();
+            stops[i] = stop;
+            workers[i] = new Thread(() -> work(stop), "engine-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    // False when the queue is full
+    boolean submit(GameSession session) {
+        return running && queue.offer(session);
+    }
+
+    int queued() {
+        return queue.size();
+    }
+
+    long searches() {
+        return searches.get();
+    }
+
+    int threads() {
+        return workers.length;
+    }
+
+    // The shared table ages once per server tick rather than per search: with many games each one would
+    // otherwise make every other game's fresh entries look stale. Called from the selector thread; the
+    // workers see the new age through the queue hand-off of their next request.
+    void tick() {
+        transpositionTable.newSearch();
+    }
+
+    void shutdown() {
+        running = false;
+        for (int i = 0; i < workers.length; i++) {
+            stops[i].set(true);
+            workers[i].interrupt();
+        }
+    }
+
+    private void work(AtomicBoolean stop) {
+        Search search = new Search(transpositionTable);
+        search.setTablebases(tablebases);
+        search.setStop(stop);
+        while (running) {
+            GameSession session;
+            try {
+                session = queue.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+            try {
+                GameSession.SearchJob job = session.prepareSearch(maxMoveMillis);
+                if (job == null) continue; // Resigned or abandoned while waiting
+                stop.set(false);
+                tablebases.prepare(job.position()); // Generates the endings this game is heading for
+                search.setPosition(job.position());
+                search.setTimeManager(job.timeManager());
+                int move = search.iterativeDeepening(1, Search.MAX_PLY - 1);
+                searches.incrementAndGet();
+                session.engineMoved(move);
+            } catch (RuntimeException e) {
+                // One broken game must not take a search thread down with it
+                System.err.println("Engine failed in session " + session.id() + ": " + e);
+                session.cancelEngineRequest();
+            }
+        }
+    }
+}
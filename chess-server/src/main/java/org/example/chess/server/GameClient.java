@@ -0,0 +1,218 @@
+package org.example.chess.server;
+
+import org.example.chess.engine.Move;
+import org.example.chess.engine.MoveGenerator;
+import org.example.chess.engine.Notation;
+import org.example.chess.engine.Position;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Stand-in client for exercising a GameServer: opens many games over a few connections and answers every
+// engine move with a random legal one until all games are over, then prints what the server sustained.
+//   java -cp chess-server.jar org.example.chess.server.GameClient --connections 4 --games 1000 --movetime 20
+public final class GameClient {
+    private int port = 7878;
+    private int connections = 4;
+    private int games = 100; // In total, spread over the connections
+    private long moveTimeMillis = 20;
+
+    private final AtomicInteger finished = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+    private final AtomicInteger busy = new AtomicInteger();
+    private final AtomicLong engineMoves = new AtomicLong();
+    private final Map<String, AtomicInteger> results = new HashMap<>();
+    private final List<Long> latencies = new ArrayList<>(); // Engine answer times in microseconds
+
+    GameClient() {
+    }
+
+    GameClient(int port, int connections, int games, long moveTimeMillis) {
+        this.port = port;
+        this.connections = connections;
+        this.games = games;
+        this.moveTimeMillis = moveTimeMillis;
+    }
+
+    public static void main(String[] args) throws Exception {
+        GameClient client = new GameClient();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            long value = Long.parseLong(args[i + 1]);
+            switch (args[i]) {
+                case "--port" -> client.port = (int) value;
+                case "--connections" -> client.connections = (int) value;
+                case "--games" -> client.games = (int) value;
+                case "--movetime" -> client.moveTimeMillis = value;
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+        client.run();
+    }
+
+    void run() throws InterruptedException {
+        long start = System.nanoTime();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            int count = games / connections + (i < games % connections ? 1 : 0);
+            threads.add(Thread.ofVirtual().name("client-" + i).start(() -> {
+                try {
+                    play(count);
+                } catch (IOException e) {
+                    System.err.println("Connection failed: " + e.getMessage());
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        List<Long> sorted;
+        synchronized (latencies) {
+            sorted = new ArrayList<>(latencies);
+        }
+        sorted.sort(null);
+        System.out.println("Games " + finished.get() + "/" + games + " in " + elapsed + " ms, results " + results);
+        System.out.println("Engine moves " + engineMoves.get() + " (" + engineMoves.get() * 1000 / elapsed + "/s), busy "
+                + busy.get() + ", errors " + errors.get());
+        if (!sorted.isEmpty()) {
+            System.out.println("Engine answer ms: median " + sorted.get(sorted.size() / 2) / 1000.0
+                    + ", p99 " + sorted.get(sorted.size() * 99 / 100) / 1000.0
+                    + ", max " + sorted.get(sorted.size() - 1) / 1000.0);
+        }
+    }
+
+    int finished() {
+        return finished.get();
+    }
+
+    int busy() {
+        return busy.get();
+    }
+
+    int errors() {
+        return errors.get();
+    }
+
+    // "RESULT REASON" -> number of games
+    Map<String, Integer> results() {
+        Map<String, Integer> counts = new HashMap<>();
+        synchronized (results) {
+            results.forEach((result, count) -> counts.put(result, count.get()));
+        }
+        return counts;
+    }
+
+    // One connection playing count games at once, half of them with each colour
+    private void play(int count) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+            Map<Long, Position> positions = new HashMap<>();
+            Map<Long, Long> askedAt = new HashMap<>(); // When the engine's turn started, for the latency
+            List<Integer> colours = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                int colour = i % 2 == 0 ? Position.WHITE : Position.BLACK;
+                colours.add(colour);
+                send(out, "new " + (colour == Position.WHITE ? "white" : "black") + " movetime " + moveTimeMillis);
+            }
+
+            int created = 0;
+            int open = count;
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            String line;
+            while (open > 0 && (line = in.readLine()) != null) {
+                String[] words = line.split(" ");
+                switch (words[0]) {
+                    case "game" -> {
+                        long id = Long.parseLong(words[1]);
+                        Position position = Position.fromFen(Position.START_FEN);
+                        positions.put(id, position);
+                        if (colours.get(created++) == Position.WHITE) {
+                            playRandom(out, id, position, moves);
+                        }
+                        askedAt.put(id, System.nanoTime());
+                    }
+                    case "bestmove" -> {
+                        long id = Long.parseLong(words[1]);
+                        Long asked = askedAt.get(id);
+                        if (asked != null) {
+                            synchronized (latencies) {
+                                latencies.add((System.nanoTime() - asked) / 1000);
+                            }
+                        }
+                        engineMoves.incrementAndGet();
+                        Position position = positions.get(id);
+                        position.makeMove(Notation.parseUci(position, words[2]));
+                        if (MoveGenerator.hasLegalMove(position)) {
+                            playRandom(out, id, position, moves);
+                            askedAt.put(id, System.nanoTime());
+                        }
+                    }
+                    case "result" -> {
+                        long id = Long.parseLong(words[1]);
+                        synchronized (results) {
+                            results.computeIfAbsent(words[2] + " " + words[3], k -> new AtomicInteger()).incrementAndGet();
+                        }
+                        finished.incrementAndGet();
+                        positions.remove(id);
+                        send(out, "close " + id);
+                        open--;
+                    }
+                    case "busy" -> {
+                        // Back off a little and ask again, as a real client would
+                        busy.incrementAndGet();
+                        Thread.ofVirtual().start(() -> {
+                            try {
+                                Thread.sleep(10);
+                                send(out, "go " + words[1]);
+                            } catch (InterruptedException | IOException e) {
+                                // The connection is going away
+                            }
+                        });
+                    }
+                    case "error" -> {
+                        // A move sent just before the engine's move ended the game is refused, that one is expected
+                        if (!line.endsWith("game over")) {
+                            errors.incrementAndGet();
+                            System.err.println(line);
+                        }
+                    }
+                    default -> {
+                        // ok and closed need no answer
+                    }
+                }
+            }
+            send(out, "quit");
+        }
+    }
+
+    private static void playRandom(Writer out, long id, Position position, int[] moves) throws IOException {
+        int count = MoveGenerator.generateLegal(position, moves, 0);
+        int move = moves[ThreadLocalRandom.current().nextInt(count)];
+        position.makeMove(move);
+        send(out, "move " + id + " " + Move.toUci(move));
+    }
+
+    private static void send(Writer out, String line) throws IOException {
+        synchronized (out) {
+            out.write(line);
+            out.write('\n');
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package org.example.chess.server;
+
+import org.example.chess.engine.Position;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Headless server hosting many games against the engine in one JVM, instead of one desktop JVM per player.
+// Clients speak a line protocol over a local socket; one selector thread does all the networking and
+// session bookkeeping, and the engine's moves come from the shared EnginePool.
+//
+//   new [white|black] [movetime MS | tc SECONDS+INC]   -> game ID   (the colour is the client's)
+//   move ID UCIMOVE    -> ok ID, or error ID REASON
+//   go ID              asks for the engine's move again after a busy
+//   state ID           -> state ID SIDE [wtime MS btime MS] result RESULT [reason REASON] moves ...
+//   resign ID, close ID, stats, quit
+// Pushed by the server: bestmove ID UCIMOVE, result ID RESULT REASON, busy ID (engine queue full),
+// closed ID (idle session dropped).
+//   java -jar chess-server.jar --threads 8
+public final class GameServer {
+    private static final long SWEEP_INTERVAL_MS = 1000; // Flag falls and idle sessions are checked this often
+
+    private int port = 7878;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 0; // Engine requests that may wait; 0 for one per session, so nobody is turned away
+    private int hashMegabytes = 64;
+    private long moveTimeMillis = 1000; // Engine time per move in games without a clock
+    private long maxMoveMillis = 10_000;
+    private int maxSessions = 10_000;
+    private long idleTimeoutMillis = 30 * 60_000;
+
+    private final Map<Long, GameSession> sessions = new HashMap<>(); // Selector thread only
+    private final Queue<Connection> writeRequests = new ConcurrentLinkedQueue<>();
+    private long nextId = 1;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private EnginePool pool;
+    private volatile boolean running = true;
+
+    public static void main(String[] args) {
+        GameServer server = new GameServer();
+        try {
+            server.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: GameServer [--port N] [--threads N] [--queue N] [--hash MB] [--movetime MS]"
+                    + " [--maxmovetime MS] [--maxsessions N] [--idle SECONDS]");
+            System.exit(2);
+        }
+        try {
+            server.bind();
+            server.serve();
+        } catch (IOException e) {
+            System.err.println("Server failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String flag = args[i];
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + flag);
+            long value;
+            try {
+                value = Long.parseLong(args[++i]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + flag + ": " + args[i]);
+            }
+            if (value < 0 || (value == 0 && !flag.equals("--port") && !flag.equals("--queue"))) {
+                throw new IllegalArgumentException("Invalid " + flag + ": " + args[i]);
+            }
+            switch (flag) {
+                case "--port" -> port = (int) value;
+                case "--threads" -> threads = (int) value;
+                case "--queue" -> queueCapacity = (int) value;
+                case "--hash" -> hashMegabytes = (int) value;
+                case "--movetime" -> moveTimeMillis = value;
+                case "--maxmovetime" -> maxMoveMillis = value;
+                case "--maxsessions" -> maxSessions = (int) value;
+                case "--idle" -> idleTimeoutMillis = value * 1000;
+                default -> throw new IllegalArgumentException("Unknown argument: " + flag);
+            }
+        }
+    }
+
+    // Opens the socket and starts the engine threads; port() is the real port from here on, also for --port 0
+    void bind() throws IOException {
+        if (queueCapacity == 0) queueCapacity = maxSessions;
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        // Local clients only, the protocol has no authentication
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        port = ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+        pool = new EnginePool(threads, queueCapacity, hashMegabytes, maxMoveMillis);
+        System.out.println("Listening on " + serverChannel.getLocalAddress() + ", " + threads + " engine threads, queue "
+                + queueCapacity);
+    }
+
+    int port() {
+        return port;
+    }
+
+    // From any thread: serve returns after closing every connection
+    void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    // The selector loop, until stop
+    void serve() throws IOException {
+        try (ServerSocketChannel server = serverChannel) {
+            long nextSweep = System.nanoTime() + SWEEP_INTERVAL_MS * 1_000_000;
+            while (running) {
+                selector.select(SWEEP_INTERVAL_MS);
+                Connection pending;
+                while ((pending = writeRequests.poll()) != null) {
+                    flush(pending);
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept(server);
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable() && !connection.read(line -> handle(connection, line))) {
+                            close(connection);
+                            continue;
+                        }
+                    } catch (IOException e) {
+                        close(connection);
+                        continue;
+                    }
+                    if (key.isValid() && key.isWritable()) flush(connection);
+                }
+                long now = System.nanoTime();
+                if (now >= nextSweep) {
+                    sweep(now);
+                    pool.tick();
+                    nextSweep = now + SWEEP_INTERVAL_MS * 1_000_000;
+                }
+            }
+        } finally {
+            for (SelectionKey key : List.copyOf(selector.keys())) {
+                if (key.attachment() instanceof Connection connection) close(connection);
+            }
+            selector.close();
+            pool.shutdown();
+        }
+    }
+
+    private void accept(ServerSocketChannel server) {
+        try {
+            SocketChannel channel = server.accept();
+            if (channel == null) return;
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true); // Replies are single short lines
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(channel, key, this::requestWrite));
+        } catch (IOException e) {
+            System.err.println("Accept failed: " + e.getMessage());
+        }
+    }
+
+    // From any thread: the connection has output waiting
+    private void requestWrite(Connection connection) {
+        writeRequests.add(connection);
+        selector.wakeup();
+    }
+
+    private void flush(Connection connection) {
+        try {
+            if (!connection.flush()) close(connection);
+        } catch (IOException e) {
+            close(connection);
+        }
+    }
+
+    private void close(Connection connection) {
+        for (GameSession session : connection.sessions()) {
+            sessions.remove(session.id());
+        }
+        connection.close();
+        connection.sessions().clear();
+    }
+
+    private void handle(Connection connection, String line) {
+        if (connection.isClosed()) return;
+        String[] words = line.trim().split("\\s+");
+        if (words[0].isEmpty()) return;
+        switch (words[0]) {
+            case "new" -> newGame(connection, words);
+            case "move" -> {
+                GameSession session = session(connection, words, 3);
+                if (session == null) return;
+                String error = session.playerMove(words[2]);
+                if (error != null) {
+                    connection.send("error " + session.id() + " " + error);
+                } else {
+                    requestEngineMove(session);
+                }
+            }
+            case "go" -> {
+                GameSession session = session(connection, words, 2);
+                if (session != null) requestEngineMove(session);
+            }
+            case "state" -> {
+                GameSession session = session(connection, words, 2);
+                if (session != null) connection.send(session.state());
+            }
+            case "resign" -> {
+                GameSession session = session(connection, words, 2);
+                if (session != null) session.resign();
+            }
+            case "close" -> {
+                GameSession session = session(connection, words, 2);
+                if (session == null) return;
+                session.abandon();
+                sessions.remove(session.id());
+                connection.sessions().remove(session);
+                connection.send("closed " + session.id());
+            }
+            case "stats" -> connection.send("stats sessions " + sessions.size() + " queued " + pool.queued()
+                    + " threads " + pool.threads() + " searches " + pool.searches());
+            case "quit" -> close(connection);
+            default -> connection.send("error - unknown command " + words[0]);
+        }
+    }
+
+    private void newGame(Connection connection, String[] words) {
+        if (sessions.size() >= maxSessions) {
+            connection.send("error - too many games");
+            return;
+        }
+        int color = Position.WHITE;
+        long moveTime = moveTimeMillis, base = 0, increment = 0;
+        try {
+            int i = 1;
+            if (i < words.length && (words[i].equals("white") || words[i].equals("black"))) {
+                color = words[i++].equals("white") ? Position.WHITE : Position.BLACK;
+            }
+            if (i + 1 < words.length && words[i].equals("movetime")) {
+                moveTime = Math.min(Long.parseLong(words[i + 1]), maxMoveMillis);
+                i += 2;
+            } else if (i + 1 < words.length && words[i].equals("tc")) {
+                String[] parts = words[i + 1].split("\\+");
+                base = Math.round(Double.parseDouble(parts[0]) * 1000);
+                increment = parts.length > 1 ? Math.round(Double.parseDouble(parts[1]) * 1000) : 0;
+                i += 2;
+            }
+            if (i != words.length || moveTime <= 0 || base < 0 || increment < 0) throw new NumberFormatException();
+        } catch (NumberFormatException e) {
+            connection.send("error - usage: new [white|black] [movetime MS | tc SECONDS+INC]");
+            return;
+        }
+        GameSession session = new GameSession(nextId++, connection, color, moveTime, base, increment);
+        sessions.put(session.id(), session);
+        connection.sessions().add(session);
+        connection.send("game " + session.id());
+        requestEngineMove(session); // The engine opens when the client plays black
+    }
+
+    // The session named by words[1], if this connection owns it
+    private GameSession session(Connection connection, String[] words, int length) {
+        if (words.length != length) {
+            connection.send("error - wrong number of arguments for " + words[0]);
+            return null;
+        }
+        GameSession session = null;
+        try {
+            session = sessions.get(Long.parseLong(words[1]));
+        } catch (NumberFormatException e) {
+            // Reported below like any unknown game
+        }
+        if (session == null || session.owner() != connection) {
+            connection.send("error " + words[1] + " unknown game");
+            return null;
+        }
+        return session;
+    }
+
+    private void requestEngineMove(GameSession session) {
+        if (!session.requestEngineMove()) return;
+        if (!pool.submit(session)) {
+            session.cancelEngineRequest();
+            session.owner().send("busy " + session.id());
+        }
+    }
+
+    // Flags that fell while the player was thinking, and sessions nobody touched for too long
+    private void sweep(long now) {
+        Iterator<GameSession> it = sessions.values().iterator();
+        while (it.hasNext()) {
+            GameSession session = it.next();
+            session.checkFlag(now);
+            if (now - session.lastActivityNanos() > idleTimeoutMillis * 1_000_000) {
+                session.abandon();
+                it.remove();
+                session.owner().sessions().remove(session);
+                session.owner().send("closed " + session.id());
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package org.example.chess.server;
+
+import org.example.chess.engine.GameEnd;
+import org.example.chess.engine.Move;
+import org.example.chess.engine.Notation;
+import org.example.chess.engine.Position;
+import org.example.chess.engine.TimeManager;
+
+// One game between a client and the engine: the position, the moves so far and the clocks, nothing else,
+// so a server holds thousands of them. The engine's moves are computed by the shared EnginePool; the
+// session only remembers that a request is pending. All methods lock the session, the selector thread
+// and the engine threads both use it.
+final class GameSession {
+    static final String WHITE_WINS = "1-0";
+    static final String BLACK_WINS = "0-1";
+    static final String DRAW = "1/2-1/2";
+
+    // Engine answer for a pending request: a private copy of the position and the time it may use
+    record SearchJob(Position position, TimeManager timeManager) {
+    }
+
+    private final long id;
+    private final Connection owner;
+    private final int playerColor;
+    private final long moveTimeMillis; // Per engine move when the game has no clock
+    private final long incrementMillis;
+    private final long[] clocks; // Remaining time per colour, null without a clock
+    private final Position position = Position.fromFen(Position.START_FEN);
+    private final StringBuilder moves = new StringBuilder();
+    private long turnStartNanos = System.nanoTime();
+    private volatile long lastActivityNanos = turnStartNanos;
+    private boolean engineRequested; // A request for this session is queued or being searched
+    private String result; // null while the game goes on
+    private String reason; // One word, so replies split on spaces
+
+    GameSession(long id, Connection owner, int playerColor, long moveTimeMillis, long baseMillis, long incrementMillis) {
+        this.id = id;
+        this.owner = owner;
+        this.playerColor = playerColor;
+        this.moveTimeMillis = moveTimeMillis;
+        this.incrementMillis = incrementMillis;
+        this.clocks = baseMillis > 0 ? new long[]{baseMillis, baseMillis} : null;
+    }
+
+    long id() {
+        return id;
+    }
+
+    Connection owner() {
+        return owner;
+    }
+
+    long lastActivityNanos() {
+        return lastActivityNanos;
+    }
+
+    synchronized boolean isOver() {
+        return result != null;
+    }
+
+    // Returns null when the move was answered (ok, or the result when the flag fell), or the reason it was refused
+    synchronized String playerMove(String text) {
+        lastActivityNanos = System.nanoTime();
+        if (result != null) return "game over";
+        if (position.getSideToMove() != playerColor) return "not your turn";
+        int move = Notation.parseUci(position, text);
+        if (move == Move.NONE) return "illegal move " + text;
+        if (!spendClock(playerColor, lastActivityNanos)) return null;
+        owner.send("ok " + id); // Before play, which may already send the result
+        play(move);
+        return null;
+    }
+
+    // Marks the engine as asked to move and returns true, unless it isn't its turn or it is already thinking
+    synchronized boolean requestEngineMove() {
+        if (result != null || engineRequested || position.getSideToMove() == playerColor) return false;
+        engineRequested = true;
+        return true;
+    }
+
+    // The pool refused the request, the client may ask again with go
+    synchronized void cancelEngineRequest() {
+        engineRequested = false;
+    }
+
+    // Called by an engine thread when it picks the request up; null when the game ended in the meantime.
+    // Time spent in the queue comes off the engine's clock, so a busy server can't slow down its games for free.
+    synchronized SearchJob prepareSearch(long maxMoveMillis) {
+        if (result != null || !engineRequested) {
+            engineRequested = false;
+            return null;
+        }
+        TimeManager timeManager;
+        if (clocks != null) {
+            long waited = (System.nanoTime() - turnStartNanos) / 1_000_000;
+            long remaining = Math.max(1, clocks[1 - playerColor] - waited);
+            timeManager = TimeManager.forClock(remaining, incrementMillis, 0).capAt(maxMoveMillis);
+        } else {
+            timeManager = TimeManager.forMoveTime(Math.min(moveTimeMillis, maxMoveMillis));
+        }
+        return new SearchJob(position.copy(), timeManager);
+    }
+
+    // Called by the engine thread with the move it found
+    synchronized void engineMoved(int move) {
+        engineRequested = false;
+        if (result != null) return;
+        long now = System.nanoTime();
+        if (!spendClock(1 - playerColor, now)) return;
+        owner.send("bestmove " + id + " " + Move.toUci(move));
+        play(move);
+    }
+
+    synchronized void resign() {
+        lastActivityNanos = System.nanoTime();
+        if (result == null) finish(playerColor == Position.WHITE ? BLACK_WINS : WHITE_WINS, "resignation");
+    }
+
+    // The client went away or the session was dropped; no message, nobody is listening
+    synchronized void abandon() {
+        if (result == null) {
+            result = playerColor == Position.WHITE ? BLACK_WINS : WHITE_WINS;
+            reason = "abandoned";
+        }
+    }
+
+    // Flag check from the selector thread's sweep, for a player who stopped moving
+    synchronized void checkFlag(long now) {
+        if (result == null && clocks != null && position.getSideToMove() == playerColor) {
+            long elapsed = (now - turnStartNanos) / 1_000_000;
+            if (clocks[playerColor] - elapsed < 0) spendClock(playerColor, now);
+        }
+    }
+
+    synchronized String state() {
+        long elapsed = (System.nanoTime() - turnStartNanos) / 1_000_000;
+        int side = position.getSideToMove();
+        StringBuilder sb = new StringBuilder("state ").append(id)
+                .append(side == Position.WHITE ? " white" : " black");
+        if (clocks != null) {
+            long white = clocks[Position.WHITE] - (result == null && side == Position.WHITE ? elapsed : 0);
+            long black = clocks[Position.BLACK] - (result == null && side == Position.BLACK ? elapsed : 0);
+            sb.append(" wtime ").append(Math.max(0, white)).append(" btime ").append(Math.max(0, black));
+        }
+        sb.append(" result ").append(result == null ? "*" : result);
+        if (result != null) sb.append(" reason ").append(reason);
+        sb.append(" moves").append(moves);
+        return sb.toString();
+    }
+
+    // Takes the time since the turn started off the mover's clock; false when the flag fell and the game is over
+    private boolean spendClock(int color, long now) {
+        if (clocks != null) {
+            clocks[color] -= (now - turnStartNanos) / 1_000_000;
+            if (clocks[color] < 0) {
+                finish(color == Position.WHITE ? BLACK_WINS : WHITE_WINS, "time-forfeit");
+                return false;
+            }
+            clocks[color] += incrementMillis;
+        }
+        turnStartNanos = now;
+        return true;
+    }
+
+    private void play(int move) {
+        moves.append(' ').append(Move.toUci(move));
+        position.makeMove(move);
+        turnStartNanos = System.nanoTime();
+        finishedByRules();
+    }
+
+    private void finishedByRules() {
+        GameEnd end = GameEnd.of(position);
+        if (end == null) return;
+        switch (end) {
+            case CHECKMATE -> finish(position.getSideToMove() == Position.WHITE ? BLACK_WINS : WHITE_WINS, "checkmate");
+            case STALEMATE -> finish(DRAW, "stalemate");
+            case REPETITION -> finish(DRAW, "repetition");
+            case FIFTY_MOVES -> finish(DRAW, "fifty-moves");
+            case INSUFFICIENT_MATERIAL -> finish(DRAW, "insufficient-material");
+        }
+    }
+
+    private void finish(String result, String reason) {
+        this.result = result;
+        this.reason = reason;
+        owner.send("result " + id + " " + result + " " + reason);
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.chess.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Starts a real server on an ephemeral port and talks to it over the socket, with GameClient for whole games
+class GameServerTest {
+    private static final String FINISHED = "(1-0|0-1) checkmate|1/2-1/2 (stalemate|repetition|fifty-moves|insufficient-material)";
+
+    private GameServer server;
+    private Thread serverThread;
+
+    @AfterEach
+    void stopServer() throws InterruptedException {
+        if (server == null) return;
+        server.stop();
+        serverThread.join(5000);
+    }
+
+    @Test
+    void clientGamesReachAResult() throws Exception {
+        start("--threads", "2");
+        GameClient client = new GameClient(server.port(), 2, 10, 5);
+        client.run();
+        assertEquals(10, client.finished());
+        assertEquals(0, client.errors());
+        int games = 0;
+        for (Map.Entry<String, Integer> result : client.results().entrySet()) {
+            assertTrue(result.getKey().matches(FINISHED), result.getKey());
+            games += result.getValue();
+        }
+        assertEquals(10, games);
+    }
+
+    @Test
+    void fullQueueAnswersBusy() throws Exception {
+        // One engine thread and one queue slot for eight games opened at once: the client is told busy,
+        // asks again with go and still finishes every game
+        start("--threads", "1", "--queue", "1");
+        GameClient client = new GameClient(server.port(), 1, 8, 20);
+        client.run();
+        assertTrue(client.busy() > 0);
+        assertEquals(8, client.finished());
+        assertEquals(0, client.errors());
+    }
+
+    @Test
+    void closedGameIsForgotten() throws IOException {
+        start("--threads", "1");
+        try (LineClient client = new LineClient(server.port())) {
+            client.send("new white movetime 10");
+            String id = client.expect("game ").substring(5);
+            client.send("move " + id + " e2e4");
+            client.expect("bestmove " + id + " ");
+            client.send("close " + id);
+            assertEquals("closed " + id, client.expect("closed "));
+            client.send("state " + id);
+            assertEquals("error " + id + " unknown game", client.expect("error "));
+        }
+    }
+
+    @Test
+    void flagFallsWhenThePlayerDoesNotMove() throws IOException {
+        start("--threads", "1");
+        try (LineClient client = new LineClient(server.port())) {
+            client.send("new white tc 0.2+0");
+            String id = client.expect("game ").substring(5);
+            // Caught by the sweep, at most a second after the flag fell
+            assertEquals("result " + id + " 0-1 time-forfeit", client.expect("result "));
+            client.send("move " + id + " e2e4");
+            assertEquals("error " + id + " game over", client.expect("error "));
+            client.send("state " + id);
+            assertTrue(client.expect("state ").contains(" result 0-1 reason time-forfeit"));
+        }
+    }
+
+    private void start(String... args) throws IOException {
+        server = new GameServer();
+        String[] all = new String[args.length + 2];
+        all[0] = "--port";
+        all[1] = "0";
+        System.arraycopy(args, 0, all, 2, args.length);
+        server.parseArgs(all);
+        server.bind();
+        serverThread = Thread.ofPlatform().name("game-server").daemon().start(() -> {
+            try {
+                server.serve();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Blocking line client for single protocol exchanges
+    private static final class LineClient implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final Writer out;
+
+        LineClient(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setSoTimeout(10_000);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+        }
+
+        void send(String line) throws IOException {
+            out.write(line + "\n");
+            out.flush();
+        }
+
+        // The next line starting with prefix; ok and other pushes before it are skipped
+        String expect(String prefix) throws IOException {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith(prefix)) return line;
+            }
+            assertNotNull(line, "connection closed while waiting for " + prefix);
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
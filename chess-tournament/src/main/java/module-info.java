@@ -0,0 +1,3 @@
+module org.example.chess.tournament {
+    requires org.example.chess.core;
+}
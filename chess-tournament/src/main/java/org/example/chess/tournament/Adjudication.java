@@ -0,0 +1,32 @@
+package org.example.chess.tournament;
+
+// Rules for ending games early from the engines' own scores, so clearly decided games don't run to mate.
+// Draw: from move drawMoveNumber on, both engines scored within drawScore for drawMoveCount moves each.
+// Resign: one engine scored at or below -resignScore for resignMoveCount moves while its opponent agreed.
+// Games longer than maxMoves full moves are drawn. A count of 0 turns the rule off.
+record Adjudication(int drawMoveNumber, int drawMoveCount, int drawScore,
+                    int resignMoveCount, int resignScore, int maxMoves) {
+
+    static final int NO_SCORE = Integer.MIN_VALUE; // The engine printed no score, it never agrees to anything
+
+    // scores[i] is the score reported for ply i, from the point of view of the engine that played it
+    boolean isDraw(int[] scores, int plies, int fullMoveNumber) {
+        if (maxMoves > 0 && fullMoveNumber > maxMoves) return true;
+        if (drawMoveCount == 0 || fullMoveNumber < drawMoveNumber || plies < 2 * drawMoveCount) return false;
+        for (int i = plies - 2 * drawMoveCount; i < plies; i++) {
+            if (scores[i] == NO_SCORE || Math.abs(scores[i]) > drawScore) return false;
+        }
+        return true;
+    }
+
+    // True when the engine that played the last ply has been lost, by both engines' account, long enough
+    boolean lastMoverResigns(int[] scores, int plies) {
+        if (resignMoveCount == 0 || plies < 2 * resignMoveCount) return false;
+        for (int i = plies - 2 * resignMoveCount; i < plies; i++) {
+            boolean loserPly = ((plies - 1 - i) & 1) == 0;
+            if (scores[i] == NO_SCORE) return false;
+            if (loserPly ? scores[i] > -resignScore : scores[i] < resignScore) return false;
+        }
+        return true;
+    }
+}
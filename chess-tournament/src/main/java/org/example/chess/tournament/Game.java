@@ -0,0 +1,192 @@
+package org.example.chess.tournament;
+
+import org.example.chess.engine.GameEnd;
+import org.example.chess.engine.Move;
+import org.example.chess.engine.Notation;
+import org.example.chess.engine.Position;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+// One engine-vs-engine game from an opening position. The rules (mate, stalemate, repetition, fifty moves,
+// bare material) are judged here with the core Position, never by the engines.
+final class Game {
+    static final String WHITE_WINS = "1-0";
+    static final String BLACK_WINS = "0-1";
+    static final String DRAW = "1/2-1/2";
+
+    private final int round;
+    private final String openingFen;
+    private final String whiteName;
+    private final String blackName;
+    private final List<String> sanMoves = new ArrayList<>();
+    private String result;
+    private String termination = "normal"; // PGN Termination tag
+    private String reason; // Final comment, e.g. "White mates"
+    private UciProcess failedEngine; // Set when an engine crashed or timed out and must be restarted
+
+    Game(int round, String openingFen, String whiteName, String blackName) {
+        this.round = round;
+        this.openingFen = openingFen;
+        this.whiteName = whiteName;
+        this.blackName = blackName;
+    }
+
+    void play(UciProcess white, UciProcess black, TimeControl timeControl, Adjudication adjudication, long marginMillis) {
+        Position position = Position.fromFen(openingFen);
+        StringBuilder positionCommand = new StringBuilder("position fen ").append(openingFen).append(" moves");
+        long[] clocks = {timeControl.baseMillis(), timeControl.baseMillis()};
+        int[] scores = new int[64];
+        int plies = 0;
+
+        while (!finishedByRules(position)) {
+            int side = position.getSideToMove();
+            UciProcess engine = side == Position.WHITE ? white : black;
+            String sideName = side == Position.WHITE ? "White" : "Black";
+            UciProcess.SearchResult answer;
+            try {
+                answer = engine.go(positionCommand.toString(),
+                        timeControl.goCommand(clocks[Position.WHITE], clocks[Position.BLACK]),
+                        timeControl.timeoutMillis(clocks[side], marginMillis));
+            } catch (TimeoutException e) {
+                failedEngine = engine;
+                lose(side, "time forfeit", sideName + " loses on time");
+                return;
+            } catch (IOException e) {
+                failedEngine = engine;
+                lose(side, "abandoned", sideName + " disconnects");
+                return;
+            }
+            if (timeControl.hasClock()) {
+                clocks[side] -= answer.elapsedMillis();
+                if (clocks[side] < -marginMillis) {
+                    lose(side, "time forfeit", sideName + " loses on time");
+                    return;
+                }
+                clocks[side] = Math.max(clocks[side], 0) + timeControl.incrementMillis();
+            }
+
+            int move = Notation.parseUci(position, answer.bestMove());
+            if (move == Move.NONE) {
+                lose(side, "rules infraction", sideName + " makes an illegal move: " + answer.bestMove());
+                return;
+            }
+            sanMoves.add(Notation.toSan(position, move));
+            position.makeMove(move);
+            positionCommand.append(' ').append(answer.bestMove());
+
+            if (plies == scores.length) scores = Arrays.copyOf(scores, plies * 2);
+            scores[plies++] = answer.hasScore() ? answer.score() : Adjudication.NO_SCORE;
+            if (adjudication.lastMoverResigns(scores, plies)) {
+                lose(side, "adjudication", (side == Position.WHITE ? "Black" : "White") + " wins by adjudication");
+                return;
+            }
+            if (adjudication.isDraw(scores, plies, position.getFullmoveNumber())) {
+                finish(DRAW, "adjudication", "Draw by adjudication");
+                return;
+            }
+        }
+    }
+
+    // Sets the result when the game is over on the board
+    private boolean finishedByRules(Position position) {
+        GameEnd end = GameEnd.of(position);
+        if (end == null) return false;
+        switch (end) {
+            case CHECKMATE -> {
+                boolean whiteMated = position.getSideToMove() == Position.WHITE;
+                finish(whiteMated ? BLACK_WINS : WHITE_WINS, "normal", (whiteMated ? "Black" : "White") + " mates");
+            }
+            case STALEMATE -> finish(DRAW, "normal", "Stalemate");
+            case REPETITION -> finish(DRAW, "normal", "Draw by 3-fold repetition");
+            case FIFTY_MOVES -> finish(DRAW, "normal", "Draw by fifty moves rule");
+            case INSUFFICIENT_MATERIAL -> finish(DRAW, "normal", "Draw by insufficient mating material");
+        }
+        return true;
+    }
+
+    private void lose(int loser, String termination, String reason) {
+        finish(loser == Position.WHITE ? BLACK_WINS : WHITE_WINS, termination, reason);
+    }
+
+    private void finish(String result, String termination, String reason) {
+        this.result = result;
+        this.termination = termination;
+        this.reason = reason;
+    }
+
+    String result() {
+        return result;
+    }
+
+    String reason() {
+        return reason;
+    }
+
+    UciProcess failedEngine() {
+        return failedEngine;
+    }
+
+    String toPgn(String event, TimeControl timeControl) {
+        StringBuilder sb = new StringBuilder();
+        tag(sb, "Event", event);
+        tag(sb, "Site", "?");
+        tag(sb, "Date", LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy.MM.dd")));
+        tag(sb, "Round", Integer.toString(round));
+        tag(sb, "White", whiteName);
+        tag(sb, "Black", blackName);
+        tag(sb, "Result", result);
+        if (!openingFen.equals(Position.START_FEN)) {
+            tag(sb, "SetUp", "1");
+            tag(sb, "FEN", openingFen);
+        }
+        tag(sb, "TimeControl", timeControl.pgnTag());
+        tag(sb, "PlyCount", Integer.toString(sanMoves.size()));
+        tag(sb, "Termination", termination);
+        sb.append('\n');
+
+        Position start = Position.fromFen(openingFen);
+        int moveNumber = start.getFullmoveNumber();
+        boolean whiteToMove = start.getSideToMove() == Position.WHITE;
+        StringBuilder movetext = new StringBuilder();
+        for (int i = 0; i < sanMoves.size(); i++) {
+            if (whiteToMove) {
+                movetext.append(moveNumber).append(". ");
+            } else if (i == 0) {
+                movetext.append(moveNumber).append("... ");
+            }
+            movetext.append(sanMoves.get(i)).append(' ');
+            if (!whiteToMove) moveNumber++;
+            whiteToMove = !whiteToMove;
+        }
+        movetext.append('{').append(reason).append("} ").append(result);
+        wrap(sb, movetext.toString());
+        return sb.append("\n\n").toString();
+    }
+
+    private static void tag(StringBuilder sb, String name, String value) {
+        sb.append('[').append(name).append(" \"")
+                .append(value.replace("\\", "\\\\").replace("\"", "\\\"")).append("\"]\n");
+    }
+
+    // PGN export format keeps lines under 80 characters
+    private static void wrap(StringBuilder sb, String movetext) {
+        int lineLength = 0;
+        for (String token : movetext.split(" ")) {
+            if (lineLength > 0 && lineLength + 1 + token.length() > 79) {
+                sb.append('\n');
+                lineLength = 0;
+            } else if (lineLength > 0) {
+                sb.append(' ');
+                lineLength++;
+            }
+            sb.append(token);
+            lineLength += token.length();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.chess.tournament;
+
+// Wins, draws and losses of the first engine, with the Elo difference they imply and the SPRT state.
+// Elo uses the logistic model; the error bar is the 95% interval of the mean score mapped to Elo.
+// The SPRT log-likelihood ratio uses the usual normal approximation of the trinomial model:
+//   LLR = n (s1 - s0) (2 mean - s0 - s1) / (2 variance)
+// where s0 and s1 are the expected scores at elo0 and elo1.
+final class Results {
+    private static final double Z_95 = 1.959964;
+
+    private int wins;
+    private int draws;
+    private int losses;
+
+    synchronized void add(double firstEngineScore) {
+        if (firstEngineScore == 1.0) wins++;
+        else if (firstEngineScore == 0.0) losses++;
+        else draws++;
+    }
+
+    synchronized int wins() {
+        return wins;
+    }
+
+    synchronized int draws() {
+        return draws;
+    }
+
+    synchronized int losses() {
+        return losses;
+    }
+
+    synchronized int games() {
+        return wins + draws + losses;
+    }
+
+    synchronized double score() {
+        int games = games();
+        return games == 0 ? 0.5 : (wins + draws / 2.0) / games;
+    }
+
+    synchronized double elo() {
+        return elo(score());
+    }
+
+    // Half-width of the 95% confidence interval, infinite until there is some spread in the results
+    synchronized double eloError() {
+        int games = games();
+        double variance = variance();
+        if (games == 0 || variance == 0) return Double.POSITIVE_INFINITY;
+        double margin = Z_95 * Math.sqrt(variance / games);
+        double mean = score();
+        return (elo(Math.min(mean + margin, 1)) - elo(Math.max(mean - margin, 0))) / 2;
+    }
+
+    synchronized double llr(double elo0, double elo1) {
+        int games = games();
+        double variance = variance();
+        if (games == 0 || variance == 0) return 0;
+        double s0 = expectedScore(elo0), s1 = expectedScore(elo1);
+        return games * (s1 - s0) * (2 * score() - s0 - s1) / (2 * variance);
+    }
+
+    // Per-game variance of the score around its mean
+    private double variance() {
+        int games = games();
+        if (games == 0) return 0;
+        double mean = score();
+        return (wins * (1 - mean) * (1 - mean) + draws * (0.5 - mean) * (0.5 - mean) + losses * mean * mean) / games;
+    }
+
+    static double elo(double score) {
+        if (score <= 0) return Double.NEGATIVE_INFINITY;
+        if (score >= 1) return Double.POSITIVE_INFINITY;
+        return 400 * Math.log10(score / (1 - score));
+    }
+
+    static double expectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.chess.tournament;
+
+// Sequential probability ratio test between H0: elo = elo0 and H1: elo = elo1. The match stops as soon as
+// the log-likelihood ratio leaves [lowerBound, upperBound], with false positive rate alpha and false
+// negative rate beta.
+record Sprt(double elo0, double elo1, double alpha, double beta) {
+
+    enum Status { CONTINUE, ACCEPT_H0, ACCEPT_H1 }
+
+    // "elo0,elo1[,alpha,beta]", alpha and beta default to 0.05
+    static Sprt parse(String text) {
+        String[] parts = text.split(",");
+        if (parts.length != 2 && parts.length != 4) throw new IllegalArgumentException("Invalid SPRT: " + text);
+        double elo0 = Double.parseDouble(parts[0]), elo1 = Double.parseDouble(parts[1]);
+        double alpha = parts.length == 4 ? Double.parseDouble(parts[2]) : 0.05;
+        double beta = parts.length == 4 ? Double.parseDouble(parts[3]) : 0.05;
+        if (elo1 <= elo0) throw new IllegalArgumentException("SPRT needs elo0 < elo1: " + text);
+        return new Sprt(elo0, elo1, alpha, beta);
+    }
+
+    double lowerBound() {
+        return Math.log(beta / (1 - alpha));
+    }
+
+    double upperBound() {
+        return Math.log((1 - beta) / alpha);
+    }
+
+    Status status(double llr) {
+        if (llr <= lowerBound()) return Status.ACCEPT_H0;
+        if (llr >= upperBound()) return Status.ACCEPT_H1;
+        return Status.CONTINUE;
+    }
+}
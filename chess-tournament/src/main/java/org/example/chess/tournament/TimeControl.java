@@ -0,0 +1,78 @@
+package org.example.chess.tournament;
+
+// How long the engines may think: a node count per move, a fixed time per move, or a clock with increment.
+// Node counts make games reproducible and independent of the machine load.
+final class TimeControl {
+    private static final long NO_CLOCK_TIMEOUT_MS = 60_000; // Generous deadline for node-limited searches
+
+    private final long nodes;
+    private final long moveTimeMillis;
+    private final long baseMillis;
+    private final long incrementMillis;
+
+    private TimeControl(long nodes, long moveTimeMillis, long baseMillis, long incrementMillis) {
+        this.nodes = nodes;
+        this.moveTimeMillis = moveTimeMillis;
+        this.baseMillis = baseMillis;
+        this.incrementMillis = incrementMillis;
+    }
+
+    static TimeControl nodes(long nodes) {
+        return new TimeControl(nodes, 0, 0, 0);
+    }
+
+    static TimeControl moveTime(long millis) {
+        return new TimeControl(0, millis, 0, 0);
+    }
+
+    // "seconds+increment", e.g. "10+0.1"
+    static TimeControl clock(String text) {
+        String[] parts = text.split("\\+");
+        long base = Math.round(Double.parseDouble(parts[0]) * 1000);
+        long increment = parts.length > 1 ? Math.round(Double.parseDouble(parts[1]) * 1000) : 0;
+        if (base <= 0) throw new IllegalArgumentException("Invalid time control: " + text);
+        return new TimeControl(0, 0, base, increment);
+    }
+
+    boolean hasClock() {
+        return baseMillis > 0;
+    }
+
+    long baseMillis() {
+        return baseMillis;
+    }
+
+    long incrementMillis() {
+        return incrementMillis;
+    }
+
+    String goCommand(long whiteMillis, long blackMillis) {
+        if (nodes > 0) return "go nodes " + nodes;
+        if (moveTimeMillis > 0) return "go movetime " + moveTimeMillis;
+        return "go wtime " + whiteMillis + " btime " + blackMillis + " winc " + incrementMillis + " binc " + incrementMillis;
+    }
+
+    // Longest wait for a bestmove before the engine is declared lost
+    long timeoutMillis(long remainingMillis, long marginMillis) {
+        if (hasClock()) return Math.max(0, remainingMillis) + marginMillis;
+        if (moveTimeMillis > 0) return moveTimeMillis + Math.max(marginMillis, 1000);
+        return NO_CLOCK_TIMEOUT_MS;
+    }
+
+    // PGN TimeControl tag value
+    String pgnTag() {
+        if (!hasClock()) return "-";
+        return incrementMillis > 0 ? seconds(baseMillis) + "+" + seconds(incrementMillis) : seconds(baseMillis);
+    }
+
+    @Override
+    public String toString() {
+        if (nodes > 0) return "nodes=" + nodes;
+        if (moveTimeMillis > 0) return "movetime=" + moveTimeMillis + "ms";
+        return "tc=" + pgnTag();
+    }
+
+    private static String seconds(long millis) {
+        return millis % 1000 == 0 ? Long.toString(millis / 1000) : Double.toString(millis / 1000.0);
+    }
+}
@@ -0,0 +1,376 @@
+package org.example.chess.tournament;
+
+import org.example.chess.engine.Position;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Engine-vs-engine match for regression testing: a new build plays an old one over an opening suite,
+// each opening twice with colours reversed. Each game runs on its own virtual thread, and at most
+// --concurrency games are in progress, one per pair of engine processes. Games go to a PGN file as they
+// finish. The score, the Elo difference with its 95% interval, and the SPRT state are printed after
+// every game and written to a JSON summary at the end.
+//
+//   java -jar chess-tournament.jar --engine1 "java -jar new.jar" --engine2 "java -jar old.jar"
+//        --nodes 20000 --games 2000 --sprt 0,5
+public final class Tournament {
+    // Balanced positions a few moves into common openings, used when no --openings file is given
+    private static final String[] DEFAULT_OPENINGS = {
+            "r1bqkbnr/1ppp1ppp/p1n5/1B2p3/4P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 0 4",
+            "r1bqk1nr/pppp1ppp/2n5/2b1p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4",
+            "rnbqkb1r/pp2pppp/3p1n2/8/3NP3/2N5/PPP2PPP/R1BQKB1R b KQkq - 2 5",
+            "r1bqkbnr/pp1ppppp/2n5/2p5/4P3/2N3P1/PPPP1P1P/R1BQKBNR b KQkq - 0 3",
+            "rnbqkb1r/ppp2ppp/4pn2/3p4/3PP3/2N5/PPP2PPP/R1BQKBNR w KQkq - 2 4",
+            "rn1qkbnr/pp2pppp/2p5/3pPb2/3P4/8/PPP2PPP/RNBQKBNR w KQkq - 1 4",
+            "rnbqkb1r/ppp1pp1p/3p1np1/8/3PP3/2N5/PPP2PPP/R1BQKBNR w KQkq - 0 4",
+            "rnbqkb1r/ppp2ppp/4pn2/3p4/2PP4/2N5/PP2PPPP/R1BQKBNR w KQkq - 2 4",
+            "rnbqkb1r/pp2pppp/2p2n2/3p4/2PP4/5N2/PP2PPPP/RNBQKB1R w KQkq - 2 4",
+            "rnbqk2r/ppp1ppbp/3p1np1/8/2PPP3/2N5/PP3PPP/R1BQKBNR w KQkq - 0 5",
+            "rnbqk2r/pppp1ppp/4pn2/8/1bPP4/2N5/PP2PPPP/R1BQKBNR w KQkq - 2 4",
+            "rnbqkb1r/p1pp1ppp/1p2pn2/8/2PP4/5N2/PP2PPPP/RNBQKB1R w KQkq - 0 4",
+            "rnbqkb1r/pp1p1ppp/4pn2/2pP4/2P5/8/PP2PPPP/RNBQKBNR w KQkq - 0 4",
+            "rnbqkb1r/pppp1ppp/5n2/4p3/2P5/2N3P1/PP1PPP1P/R1BQKBNR b KQkq - 0 3",
+            "rnbqkb1r/ppp2ppp/4pn2/3p4/8/5NP1/PPPPPPBP/RNBQK2R w KQkq - 0 4",
+            "rnbqkb1r/pppp2pp/4pn2/5p2/3P4/6P1/PPP1PPBP/RNBQK1NR w KQkq - 0 4",
+    };
+
+    private List<String> command1;
+    private List<String> command2;
+    private String name1 = "engine1";
+    private String name2 = "engine2";
+    private final Map<String, String> options = new LinkedHashMap<>();
+    private int games = 1000;
+    private int concurrency = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private TimeControl timeControl = TimeControl.nodes(20_000);
+    private List<String> openings = Arrays.asList(DEFAULT_OPENINGS);
+    private Path pgnPath = Path.of("tournament.pgn");
+    private Path jsonPath = Path.of("tournament.json");
+    private Sprt sprt;
+    private Adjudication adjudication = new Adjudication(40, 8, 10, 3, 700, 300);
+    private long marginMillis = 100;
+
+    private final Results results = new Results();
+    private final AtomicInteger started = new AtomicInteger();
+    private final AtomicBoolean stopped = new AtomicBoolean();
+    private final Object pgnLock = new Object();
+    private Writer pgn;
+    private volatile Sprt.Status sprtStatus = Sprt.Status.CONTINUE;
+
+    // Both engines of one concurrency slot; replaced when an engine has to be restarted
+    private record EnginePair(UciProcess first, UciProcess second) {
+    }
+
+    public static void main(String[] args) {
+        Tournament tournament = new Tournament();
+        try {
+            tournament.parseArgs(args);
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println(e.getMessage());
+            usage();
+            System.exit(2);
+        }
+        try {
+            tournament.run();
+        } catch (Exception e) {
+            System.err.println("Tournament failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void usage() {
+        System.err.println("""
+                Usage: Tournament --engine1 CMD --engine2 CMD [options]
+                  --name1 NAME, --name2 NAME   names in the PGN (default engine1, engine2)
+                  --option NAME=VALUE          UCI option for both engines, repeatable
+                  --games N                    games to play, in colour-reversed pairs (default 1000)
+                  --concurrency N              games in progress at once (default cores/2)
+                  --nodes N | --movetime MS | --tc SECONDS+INC   (default --nodes 20000)
+                  --openings FILE              one FEN or EPD per line (default built-in suite)
+                  --pgn FILE, --json FILE      output (default tournament.pgn, tournament.json)
+                  --sprt ELO0,ELO1[,ALPHA,BETA]  stop early once the test concludes
+                  --draw MOVE,COUNT,SCORE      draw adjudication (default 40,8,10; 0 count disables)
+                  --resign COUNT,SCORE         resign adjudication (default 3,700; 0 count disables)
+                  --maxmoves N                 draw after N moves (default 300; 0 disables)
+                  --timemargin MS              clock overrun allowed before a loss on time (default 100)""");
+    }
+
+    private void parseArgs(String[] args) throws IOException {
+        for (int i = 0; i < args.length; i++) {
+            String flag = args[i];
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + flag);
+            String value = args[++i];
+            switch (flag) {
+                case "--engine1" -> command1 = List.of(value.trim().split("\\s+"));
+                case "--engine2" -> command2 = List.of(value.trim().split("\\s+"));
+                case "--name1" -> name1 = value;
+                case "--name2" -> name2 = value;
+                case "--option" -> {
+                    int eq = value.indexOf('=');
+                    if (eq <= 0) throw new IllegalArgumentException("Invalid option: " + value);
+                    options.put(value.substring(0, eq), value.substring(eq + 1));
+                }
+                case "--games" -> games = positive(flag, value);
+                case "--concurrency" -> concurrency = positive(flag, value);
+                case "--nodes" -> timeControl = TimeControl.nodes(positive(flag, value));
+                case "--movetime" -> timeControl = TimeControl.moveTime(positive(flag, value));
+                case "--tc" -> timeControl = TimeControl.clock(value);
+                case "--openings" -> openings = loadOpenings(Path.of(value));
+                case "--pgn" -> pgnPath = Path.of(value);
+                case "--json" -> jsonPath = Path.of(value);
+                case "--sprt" -> sprt = Sprt.parse(value);
+                case "--draw" -> {
+                    int[] parts = ints(flag, value, 3);
+                    adjudication = new Adjudication(parts[0], parts[1], parts[2], adjudication.resignMoveCount(),
+                            adjudication.resignScore(), adjudication.maxMoves());
+                }
+                case "--resign" -> {
+                    int[] parts = ints(flag, value, 2);
+                    adjudication = new Adjudication(adjudication.drawMoveNumber(), adjudication.drawMoveCount(),
+                            adjudication.drawScore(), parts[0], parts[1], adjudication.maxMoves());
+                }
+                case "--maxmoves" -> {
+                    int maxMoves = ints(flag, value, 1)[0];
+                    adjudication = new Adjudication(adjudication.drawMoveNumber(), adjudication.drawMoveCount(),
+                            adjudication.drawScore(), adjudication.resignMoveCount(), adjudication.resignScore(), maxMoves);
+                }
+                case "--timemargin" -> marginMillis = ints(flag, value, 1)[0];
+                default -> throw new IllegalArgumentException("Unknown argument: " + flag);
+            }
+        }
+        if (command1 == null || command2 == null) throw new IllegalArgumentException("Both --engine1 and --engine2 are required");
+        if (openings.isEmpty()) throw new IllegalArgumentException("The opening suite is empty");
+        if (name1.equals(name2)) name2 = name2 + "-2";
+    }
+
+    private static int positive(String flag, String value) {
+        int n = ints(flag, value, 1)[0];
+        if (n <= 0) throw new IllegalArgumentException(flag + " must be positive: " + value);
+        return n;
+    }
+
+    private static int[] ints(String flag, String value, int count) {
+        String[] parts = value.split(",");
+        if (parts.length != count) throw new IllegalArgumentException("Invalid " + flag + ": " + value);
+        int[] result = new int[count];
+        try {
+            for (int i = 0; i < count; i++) result[i] = Integer.parseInt(parts[i].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + flag + ": " + value);
+        }
+        if (Arrays.stream(result).anyMatch(n -> n < 0)) throw new IllegalArgumentException("Invalid " + flag + ": " + value);
+        return result;
+    }
+
+    // FEN lines, or EPD lines (four fields plus opcodes); blank lines and # comments are skipped
+    private static List<String> loadOpenings(Path path) throws IOException {
+        List<String> fens = new ArrayList<>();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] fields = line.split("\\s+");
+            if (fields.length < 4) throw new IllegalArgumentException("Invalid opening in " + path + ": " + line);
+            boolean fen = fields.length >= 6 && fields[4].matches("\\d+") && fields[5].matches("\\d+");
+            String opening = fen ? String.join(" ", Arrays.copyOf(fields, 6))
+                    : String.join(" ", Arrays.copyOf(fields, 4)) + " 0 1";
+            try {
+                Position.fromFen(opening);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid opening in " + path + ": " + line);
+            }
+            fens.add(opening);
+        }
+        return fens;
+    }
+
+    private void run() throws Exception {
+        System.out.println(name1 + " vs " + name2 + ", " + games + " games, " + timeControl + ", "
+                + openings.size() + " openings, concurrency " + concurrency
+                + (sprt == null ? "" : String.format(Locale.ROOT, ", SPRT elo0=%.1f elo1=%.1f alpha=%.2f beta=%.2f",
+                sprt.elo0(), sprt.elo1(), sprt.alpha(), sprt.beta())));
+        long start = System.currentTimeMillis();
+
+        BlockingQueue<EnginePair> pairs = new ArrayBlockingQueue<>(concurrency);
+        try (Writer writer = Files.newBufferedWriter(pgnPath, StandardCharsets.UTF_8)) {
+            pgn = writer;
+            for (int i = 0; i < concurrency; i++) {
+                pairs.add(new EnginePair(new UciProcess(name1, command1, options), new UciProcess(name2, command2, options)));
+            }
+            // Tasks block on the pair queue, so only `concurrency` games are ever in progress
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < games; i++) {
+                    int index = i;
+                    executor.submit(() -> playGame(index, pairs));
+                }
+            }
+        } finally {
+            for (EnginePair pair : pairs) {
+                pair.first().close();
+                pair.second().close();
+            }
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        System.out.println("Finished in " + elapsed / 1000 + " s: " + summaryLine());
+        if (sprtStatus != Sprt.Status.CONTINUE) {
+            System.out.println(sprtStatus == Sprt.Status.ACCEPT_H1 ? "SPRT: H1 accepted" : "SPRT: H0 accepted");
+        }
+        writeJson(elapsed);
+    }
+
+    private Void playGame(int index, BlockingQueue<EnginePair> pairs) throws InterruptedException {
+        if (stopped.get()) return null;
+        EnginePair pair = pairs.take();
+        try {
+            if (stopped.get()) return null;
+            // Each opening is played twice with colours reversed, so neither engine profits from a lopsided line
+            String opening = openings.get((index / 2) % openings.size());
+            boolean firstIsWhite = index % 2 == 0;
+            UciProcess white = firstIsWhite ? pair.first() : pair.second();
+            UciProcess black = firstIsWhite ? pair.second() : pair.first();
+            int round = started.incrementAndGet();
+
+            Game game = new Game(round, opening, white.name(), black.name());
+            try {
+                white.newGame();
+                black.newGame();
+                game.play(white, black, timeControl, adjudication, marginMillis);
+            } catch (IOException | TimeoutException e) {
+                System.err.println("Game " + round + " not played: " + e.getMessage());
+                pair = restart(pair, null);
+                return null;
+            }
+            if (game.failedEngine() != null) pair = restart(pair, game.failedEngine());
+            record(game, firstIsWhite);
+        } finally {
+            pairs.add(pair);
+        }
+        return null;
+    }
+
+    // Replaces the failed engine with a fresh process, or both when failed is null
+    private EnginePair restart(EnginePair pair, UciProcess failed) {
+        try {
+            UciProcess first = failed == null || failed == pair.first() ? pair.first().restart() : pair.first();
+            UciProcess second = failed == null || failed == pair.second() ? pair.second().restart() : pair.second();
+            return new EnginePair(first, second);
+        } catch (IOException | TimeoutException e) {
+            System.err.println("Could not restart engine: " + e.getMessage());
+            stopped.set(true);
+            return pair;
+        }
+    }
+
+    private void record(Game game, boolean firstIsWhite) {
+        double whiteScore = switch (game.result()) {
+            case Game.WHITE_WINS -> 1.0;
+            case Game.BLACK_WINS -> 0.0;
+            default -> 0.5;
+        };
+        synchronized (pgnLock) {
+            results.add(firstIsWhite ? whiteScore : 1 - whiteScore);
+            try {
+                pgn.write(game.toPgn(name1 + " vs " + name2, timeControl));
+                pgn.flush();
+            } catch (IOException e) {
+                System.err.println("Could not write PGN: " + e.getMessage());
+            }
+            System.out.println(summaryLine());
+
+            if (sprt != null && sprtStatus == Sprt.Status.CONTINUE) {
+                sprtStatus = sprt.status(results.llr(sprt.elo0(), sprt.elo1()));
+                if (sprtStatus != Sprt.Status.CONTINUE) stopped.set(true);
+            }
+        }
+    }
+
+    private String summaryLine() {
+        String line = String.format(Locale.ROOT, "Games %d: +%d -%d =%d, score %.1f%%, Elo %s",
+                results.games(), results.wins(), results.losses(), results.draws(), results.score() * 100,
+                formatElo(results.elo(), results.eloError()));
+        if (sprt == null) return line;
+        return line + String.format(Locale.ROOT, ", LLR %.2f (%.2f, %.2f)",
+                results.llr(sprt.elo0(), sprt.elo1()), sprt.lowerBound(), sprt.upperBound());
+    }
+
+    private static String formatElo(double elo, double error) {
+        String value = Double.isFinite(elo) ? String.format(Locale.ROOT, "%.1f", elo) : (elo > 0 ? "+inf" : "-inf");
+        return Double.isFinite(error) ? value + String.format(Locale.ROOT, " +/- %.1f", error) : value;
+    }
+
+    // Written by hand, the summary is small and the module has no dependencies beyond the JDK
+    private void writeJson(long elapsedMillis) throws IOException {
+        StringBuilder sb = new StringBuilder("{\n");
+        sb.append("  \"engine1\": ").append(quote(name1)).append(",\n");
+        sb.append("  \"engine2\": ").append(quote(name2)).append(",\n");
+        sb.append("  \"timeControl\": ").append(quote(timeControl.toString())).append(",\n");
+        sb.append("  \"openings\": ").append(openings.size()).append(",\n");
+        sb.append("  \"gamesPlanned\": ").append(games).append(",\n");
+        sb.append("  \"games\": ").append(results.games()).append(",\n");
+        sb.append("  \"wins\": ").append(results.wins()).append(",\n");
+        sb.append("  \"losses\": ").append(results.losses()).append(",\n");
+        sb.append("  \"draws\": ").append(results.draws()).append(",\n");
+        sb.append("  \"score\": ").append(number(results.score())).append(",\n");
+        sb.append("  \"elo\": ").append(number(results.elo())).append(",\n");
+        sb.append("  \"eloError95\": ").append(number(results.eloError())).append(",\n");
+        if (sprt != null) {
+            sb.append("  \"sprt\": {\n");
+            sb.append("    \"elo0\": ").append(number(sprt.elo0())).append(",\n");
+            sb.append("    \"elo1\": ").append(number(sprt.elo1())).append(",\n");
+            sb.append("    \"alpha\": ").append(number(sprt.alpha())).append(",\n");
+            sb.append("    \"beta\": ").append(number(sprt.beta())).append(",\n");
+            sb.append("    \"llr\": ").append(number(results.llr(sprt.elo0(), sprt.elo1()))).append(",\n");
+            sb.append("    \"lowerBound\": ").append(number(sprt.lowerBound())).append(",\n");
+            sb.append("    \"upperBound\": ").append(number(sprt.upperBound())).append(",\n");
+            sb.append("    \"result\": ").append(quote(switch (sprtStatus) {
+                case ACCEPT_H0 -> "H0";
+                case ACCEPT_H1 -> "H1";
+                case CONTINUE -> "inconclusive";
+            })).append("\n");
+            sb.append("  },\n");
+        }
+        sb.append("  \"pgn\": ").append(quote(pgnPath.toString())).append(",\n");
+        sb.append("  \"elapsedMillis\": ").append(elapsedMillis).append('\n');
+        sb.append("}\n");
+        try (BufferedWriter writer = Files.newBufferedWriter(jsonPath, StandardCharsets.UTF_8)) {
+            writer.write(sb.toString());
+        }
+    }
+
+    // JSON has no infinities, an undefined Elo is written as null
+    private static String number(double value) {
+        return Double.isFinite(value) ? String.format(Locale.ROOT, "%.4f", value) : "null";
+    }
+
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.chess.tournament;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// A UCI engine running in a child process. Its output is pumped into a queue by a virtual thread,
+// so every wait for an answer can give up at a deadline.
+final class UciProcess implements AutoCloseable {
+    private static final long HANDSHAKE_TIMEOUT_MS = 10_000;
+    private static final String EOF = new String("EOF"); // Identity marker for the end of the output
+
+    // Answer to one go command; score is in centipawns from the engine's point of view, mates as +/-MATE_SCORE
+    record SearchResult(String bestMove, int score, boolean hasScore, long elapsedMillis) {
+    }
+
+    static final int MATE_SCORE = 100000;
+
+    private final String name;
+    private final List<String> command;
+    private final Map<String, String> options;
+    private final Process process;
+    private final BufferedWriter out;
+    private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+
+    UciProcess(String name, List<String> command, Map<String, String> options) throws IOException, TimeoutException {
+        this.name = name;
+        this.command = command;
+        this.options = options;
+        process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+        out = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.US_ASCII));
+        BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.US_ASCII));
+        Thread.ofVirtual().name("uci-reader-" + name).start(() -> {
+            try {
+                String line;
+                while ((line = in.readLine()) != null) lines.add(line);
+            } catch (IOException e) {
+                // The process went away, handled as the end of the output
+            }
+            lines.add(EOF);
+        });
+
+        send("uci");
+        waitFor("uciok", HANDSHAKE_TIMEOUT_MS);
+        for (Map.Entry<String, String> option : options.entrySet()) {
+            send("setoption name " + option.getKey() + " value " + option.getValue());
+        }
+        newGame();
+    }
+
+    // Same engine and options in a fresh process, after a crash or a timeout
+    UciProcess restart() throws IOException, TimeoutException {
+        close();
+        return new UciProcess(name, command, options);
+    }
+
+    String name() {
+        return name;
+    }
+
+    void newGame() throws IOException, TimeoutException {
+        send("ucinewgame");
+        send("isready");
+        waitFor("readyok", HANDSHAKE_TIMEOUT_MS);
+    }
+
+    // Sends the position and go command, then collects info lines until bestmove. Throws TimeoutException
+    // when no bestmove arrives within timeoutMillis.
+    SearchResult go(String positionCommand, String goCommand, long timeoutMillis) throws IOException, TimeoutException {
+        send(positionCommand);
+        long start = System.nanoTime();
+        send(goCommand);
+        long deadline = start + timeoutMillis * 1_000_000;
+        int score = 0;
+        boolean hasScore = false;
+        while (true) {
+            String line = next(deadline);
+            if (line.startsWith("bestmove")) {
+                long elapsed = (System.nanoTime() - start) / 1_000_000;
+                String[] parts = line.trim().split("\\s+");
+                return new SearchResult(parts.length > 1 ? parts[1] : "0000", score, hasScore, elapsed);
+            }
+            if (line.startsWith("info") && !line.contains("lowerbound") && !line.contains("upperbound")) {
+                int index = line.indexOf(" score ");
+                if (index >= 0) {
+                    String[] parts = line.substring(index + 7).trim().split("\\s+", 3);
+                    if (parts.length >= 2) {
+                        try {
+                            int value = Integer.parseInt(parts[1]);
+                            if (parts[0].equals("cp")) {
+                                score = value;
+                                hasScore = true;
+                            } else if (parts[0].equals("mate")) {
+                                score = value > 0 ? MATE_SCORE - value : -MATE_SCORE - value;
+                                hasScore = true;
+                            }
+                        } catch (NumberFormatException e) {
+                            // Not a score we understand, keep the previous one
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void waitFor(String answer, long timeoutMillis) throws IOException, TimeoutException {
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000;
+        while (!next(deadline).startsWith(answer)) {
+            // Skip id, option and info lines
+        }
+    }
+
+    private String next(long deadlineNanos) throws IOException, TimeoutException {
+        try {
+            String line = lines.poll(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (line == null) throw new TimeoutException(name + " did not answer in time");
+            if (line == EOF) {
+                lines.add(EOF); // Later reads fail the same way
+                throw new IOException(name + " exited");
+            }
+            return line;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for " + name, e);
+        }
+    }
+
+    private void send(String command) throws IOException {
+        out.write(command);
+        out.newLine();
+        out.flush();
+    }
+
+    @Override
+    public void close() {
+        try {
+            send("quit");
+        } catch (IOException e) {
+            // Already gone
+        }
+        try {
+            if (!process.waitFor(1, TimeUnit.SECONDS)) process.destroyForcibly();
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
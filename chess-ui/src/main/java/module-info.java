@@ -8,7 +8,8 @@ module org.example.chess {
     requires eu.hansolo.tilesfx;
     requires com.almasb.fxgl.all;
 
-    requires java.sql;
+    requires org.example.chess.core;
+    requires org.example.chess.persistence;
 
     opens org.example.chess to javafx.fxml;
     exports org.example.chess;
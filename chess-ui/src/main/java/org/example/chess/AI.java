@@ -0,0 +1,268 @@
+package org.example.chess;
+
+import javafx.scene.layout.GridPane;
+import org.example.chess.engine.Move;
+import org.example.chess.engine.MoveGenerator;
+import org.example.chess.engine.OpeningBook;
+import org.example.chess.engine.Position;
+import org.example.chess.engine.Search;
+import org.example.chess.engine.SearchThreads;
+import org.example.chess.engine.Tablebases;
+import org.example.chess.engine.TimeManager;
+import org.example.chess.engine.TranspositionTable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class AI {
+    private Board board;
+    private Position position;
+    private GameLogic gameLogic;
+    private int[] lastMove;
+    private int lastPromotion;
+    private String difficulty;
+    private String gameMode; // To adjust for Blitz mode
+    private Random random = new Random();
+    private int hashSizeMb = DEFAULT_HASH_MB;
+    private TranspositionTable transpositionTable = new TranspositionTable(DEFAULT_HASH_MB);
+    private SearchThreads searchThreads;
+    private volatile AtomicBoolean currentStop = new AtomicBoolean();
+    private long clockMillis;
+    private long incrementMillis;
+    private int lastMoveCode = Move.NONE;
+    private boolean ponder;
+    // Search on the opponent's time, started from the position after the reply the PV expects
+    private CompletableFuture<Integer> ponderTask;
+    private AtomicBoolean ponderStop;
+    private TimeManager ponderTimeManager;
+    private long ponderKey;
+
+    public static final int DEFAULT_HASH_MB = 32;
+    private static final Path BOOK_PATH = Path.of("book.bin"); // Optional Polyglot book in the working directory
+    private static OpeningBook book;
+    private static boolean bookOpened;
+    // Endgame tables, generated into this folder the first time an ending needs them
+    private static final Tablebases TABLEBASES = new Tablebases(Path.of("tablebases"));
+
+    // Daemon threads so a pending search never keeps the application alive
+    private static final ExecutorService SEARCH_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "ai-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AI(Board board, GameLogic gameLogic, String difficulty) {
+        this.board = board;
+        this.position = board.getPosition();
+        this.gameLogic = gameLogic;
+        this.difficulty = difficulty;
+        this.lastMove = new int[4];
+        this.gameMode = "Standard"; // Default, updated via setGameMode
+        setThreads(Runtime.getRuntime().availableProcessors());
+    }
+
+    // Number of search threads used in Hard mode, including the main one; only while no search runs
+    public void setThreads(int threads) {
+        if (searchThreads == null) {
+            searchThreads = new SearchThreads(transpositionTable, TABLEBASES, threads);
+        } else {
+            searchThreads.setThreads(threads);
+        }
+    }
+
+    // Opened once and shared by every game, null when there is no usable book
+    private static synchronized OpeningBook book() {
+        if (!bookOpened) {
+            bookOpened = true;
+            if (Files.exists(BOOK_PATH)) {
+                try {
+                    book = OpeningBook.open(BOOK_PATH);
+                    System.out.println("Opening book loaded: " + book.size() + " entries");
+                } catch (IOException e) {
+                    System.err.println("Could not open the opening book: " + e.getMessage());
+                }
+            }
+        }
+        return book;
+    }
+
+    // Black's remaining time and increment for the next move, 0 when the game has no time limit
+    public void setClock(long remainingMillis, long incrementMillis) {
+        this.clockMillis = remainingMillis;
+        this.incrementMillis = incrementMillis;
+    }
+
+    public void setPonder(boolean ponder) {
+        this.ponder = ponder;
+        if (!ponder) cancel();
+    }
+
+    public void setGameMode(String gameMode) {
+        this.gameMode = gameMode;
+    }
+
+    // Resizing drops the stored entries; only while no search runs, the table is not locked against probes
+    public void setHashSize(int megabytes) {
+        if (megabytes != hashSizeMb) {
+            hashSizeMb = megabytes;
+            transpositionTable.resize(megabytes);
+        }
+    }
+
+    // Runs the search on the background search thread; the board is not touched until applyMove
+    public CompletableFuture<Integer> computeMoveAsync() {
+        TimeManager timeManager = createTimeManager();
+        CompletableFuture<Integer> pondered = takePonderSearch(timeManager);
+        if (pondered != null) return pondered;
+        Position snapshot = position.copy();
+        AtomicBoolean stop = new AtomicBoolean();
+        currentStop = stop;
+        return CompletableFuture.supplyAsync(() -> chooseMove(snapshot, stop, timeManager), SEARCH_EXECUTOR);
+    }
+
+    // Without a clock keep the fixed budgets: 1s for Blitz, 2s for Standard
+    private TimeManager createTimeManager() {
+        return clockMillis > 0
+                ? TimeManager.forClock(clockMillis, incrementMillis, 0)
+                : TimeManager.forMoveTime(gameMode.equals("Blitz") ? 1000 : 2000);
+    }
+
+    // After our move, searches the reply the principal variation expects while the opponent thinks.
+    // Only in Hard mode, and only when the move just played came from the search.
+    public void startPondering() {
+        if (!ponder || !difficulty.equals("Hard")) return;
+        int[] pv = searchThreads.main().getPrincipalVariation();
+        if (pv.length < 2 || pv[0] != lastMoveCode) return;
+
+        Position snapshot = position.copy();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegal(snapshot, moves, 0);
+        boolean legal = false;
+        for (int i = 0; i < count && !legal; i++) {
+            legal = moves[i] == pv[1];
+        }
+        if (!legal) return;
+        snapshot.makeMove(pv[1]);
+
+        AtomicBoolean stop = new AtomicBoolean();
+        TimeManager timeManager = TimeManager.forPondering();
+        currentStop = stop;
+        ponderStop = stop;
+        ponderTimeManager = timeManager;
+        ponderKey = snapshot.getKey();
+        ponderTask = CompletableFuture.supplyAsync(() -> chooseMove(snapshot, stop, timeManager), SEARCH_EXECUTOR);
+    }
+
+    // Ponder hit: the running search carries on under the real time limits and becomes the answer.
+    // Miss: it is told to stop and the new search queues behind it, the caller never waits.
+    private CompletableFuture<Integer> takePonderSearch(TimeManager budget) {
+        CompletableFuture<Integer> task = ponderTask;
+        if (task == null) return null;
+        ponderTask = null;
+        if (position.getKey() != ponderKey) {
+            ponderStop.set(true);
+            return null;
+        }
+        if (ponderTimeManager.ponderHit(budget)) {
+            ponderStop.set(true); // Pondered long enough already, answer with what it has
+        }
+        return task;
+    }
+
+    // Stops the running search or ponder search; a stopped move search comes back early and should be discarded
+    public void cancel() {
+        currentStop.set(true);
+        ponderTask = null;
+    }
+
+    // Synchronous variant, searches on the calling thread
+    public void makeMove(GridPane chessBoard) {
+        int move = chooseMove(position.copy(), new AtomicBoolean(), createTimeManager());
+        if (move != Move.NONE) {
+            applyMove(move, chessBoard);
+        }
+    }
+
+    // Plays the chosen move on the board, must be called on the FX thread
+    public void applyMove(int move, GridPane chessBoard) {
+        int from = Move.from(move), to = Move.to(move);
+        lastMove = new int[]{Position.row(from), Position.col(from), Position.row(to), Position.col(to)};
+        lastPromotion = Move.promotionType(move);
+        lastMoveCode = move;
+        board.movePiece(lastMove[0], lastMove[1], lastMove[2], lastMove[3], chessBoard);
+    }
+
+    private int chooseMove(Position snapshot, AtomicBoolean stop, TimeManager timeManager) {
+        int[] validMoves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegal(snapshot, validMoves, 0); // Black's moves
+        if (count == 0) {
+            System.out.println("No valid moves for Black");
+            return Move.NONE;
+        }
+
+        TABLEBASES.prepare(snapshot);
+        if (!difficulty.equals("Easy")) {
+            int tablebaseMove = TABLEBASES.bestMove(snapshot); // Perfect play once the ending is in the tables
+            if (tablebaseMove != Move.NONE) return tablebaseMove;
+        }
+
+        int bookMove = bookMove(snapshot);
+        if (bookMove != Move.NONE) return bookMove;
+
+        int bestMove = switch (difficulty) {
+            case "Easy" -> Move.NONE;
+            case "Medium" -> minimaxMove(snapshot, stop, 2); // Shallow search
+            case "Hard" -> iterativeDeepeningMove(snapshot, stop, timeManager);
+            default -> Move.NONE;
+        };
+        return bestMove != Move.NONE ? bestMove : randomMove(validMoves, count);
+    }
+
+    // Easy picks any book move, Medium follows the weights, Hard sticks to the main lines
+    private int bookMove(Position snapshot) {
+        OpeningBook openingBook = book();
+        if (openingBook == null) return Move.NONE;
+        int weightPower = switch (difficulty) {
+            case "Easy" -> 0;
+            case "Medium" -> 1;
+            default -> 2;
+        };
+        return openingBook.pick(snapshot, random, weightPower);
+    }
+
+    private int randomMove(int[] validMoves, int count) {
+        return validMoves[random.nextInt(count)];
+    }
+
+    private int minimaxMove(Position snapshot, AtomicBoolean stop, int depth) {
+        transpositionTable.newSearch();
+        Search search = searchThreads.main();
+        search.setPosition(snapshot);
+        search.setStop(stop);
+        search.setTimeManager(null);
+        return search.iterativeDeepening(depth, depth);
+    }
+
+    private int iterativeDeepeningMove(Position snapshot, AtomicBoolean stop, TimeManager timeManager) {
+        return searchThreads.search(snapshot, stop, timeManager, Search.MAX_PLY - 1); // Time decides the depth
+    }
+
+    public int[] getLastMove() {
+        return lastMove;
+    }
+
+    // Piece type name chosen for the last promotion, null when the last move was not a promotion
+    public String getLastPromotion() {
+        return lastPromotion == 0 ? null : Position.typeName(lastPromotion);
+    }
+
+    public void setDifficulty(String difficulty) {
+        this.difficulty = difficulty;
+    }
+}
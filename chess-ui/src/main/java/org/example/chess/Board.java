@@ -4,18 +4,23 @@ import javafx.animation.TranslateTransition;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.GridPane;
 import javafx.util.Duration;
+import org.example.chess.engine.Position;
 
+// View adapter: keeps the ImageViews shown in the GridPane, while the rules and the AI work on the Position.
 public class Board {
     private static int TILE_SIZE = 80;
     private static final int BOARD_SIZE = 8;
     private ChessPiece[][] board;
+    private final Position position;
 
     public Board() {
         board = new ChessPiece[BOARD_SIZE][BOARD_SIZE];
+        position = new Position();
     }
 
     public void initializeBoard(GridPane chessBoard) {
         board = new ChessPiece[BOARD_SIZE][BOARD_SIZE];
+        position.load(Position.START_FEN);
 
         // White pieces
         board[7][0] = new ChessPiece("rook", true, "/pieces/75px_white_rook.png");
@@ -62,6 +67,8 @@ public class Board {
         ChessPiece targetPiece = board[toRow][toCol];
         if (targetPiece != null && targetPiece.isWhite() == piece.isWhite()) return;
 
+        position.movePiece(Position.square(fromRow, fromCol), Position.square(toRow, toCol));
+
         if (piece.getType().equals("king") && Math.abs(fromCol - toCol) == 2) {
             int rookFromCol = (toCol > fromCol) ? 7 : 0;
             int rookToCol = (toCol > fromCol) ? fromCol + 1 : fromCol - 1;
@@ -160,6 +167,8 @@ public class Board {
             }
         }
 
+        position.movePiece(Position.square(fromRow, fromCol), Position.square(toRow, toCol));
+
         ImageView pieceImage = piece.getImageView();
         TranslateTransition transition = new TranslateTransition(Duration.millis(150), pieceImage);
         transition.setToX((toCol - fromCol) * TILE_SIZE);
@@ -191,9 +200,19 @@ public class Board {
     public void setPiece(int row, int col, ChessPiece piece) {
         if (row >= 0 && row < BOARD_SIZE && col >= 0 && col < BOARD_SIZE) {
             board[row][col] = piece;
+            int square = Position.square(row, col);
+            if (piece == null) {
+                position.remove(square);
+            } else {
+                position.put(square, Position.piece(piece.isWhite() ? Position.WHITE : Position.BLACK, Position.typeOf(piece.getType())));
+            }
         }
     }
 
+    public Position getPosition() {
+        return position;
+    }
+
     public static void setTileSize(int size) {
         TILE_SIZE = size;
     }
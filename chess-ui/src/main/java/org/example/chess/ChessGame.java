@@ -4,6 +4,7 @@ import javafx.animation.Animation;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.geometry.Insets;
@@ -21,15 +22,18 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.scene.text.Font;
 import javafx.util.Duration;
+import org.example.chess.engine.GameEnd;
+import org.example.chess.engine.Move;
+import org.example.chess.persistence.DatabaseConnection;
+import org.example.chess.persistence.GameStore;
+import org.example.chess.persistence.SavedGame;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class ChessGame extends Application {
     private GridPane chessBoard;
@@ -57,6 +61,10 @@ public class ChessGame extends Application {
     private String timeLimit;
     private int timeIncrement = 0;
     private String gameMode = "Standard";
+    private CompletableFuture<Integer> aiTask; // Pending AI move, null when it is not the AI's turn
+    private int hashSizeMb = AI.DEFAULT_HASH_MB;
+    private int searchThreads = Runtime.getRuntime().availableProcessors();
+    private boolean ponder; // Let the AI think on White's time
 
     private static class GameRecord {
         private final SimpleIntegerProperty gameId;
@@ -132,16 +140,37 @@ public class ChessGame extends Application {
         }
     }
 
+    // Only recorded: the current AI may still be searching on this table, resetGame hands the size to the new one
+    public void setHashSize(int megabytes) {
+        this.hashSizeMb = megabytes;
+    }
+
+    // Like the hash size, only the AI built by resetGame gets it; the current one may be mid-search
+    public void setSearchThreads(int threads) {
+        this.searchThreads = threads;
+    }
+
+    public void setPonder(boolean ponder) {
+        this.ponder = ponder;
+        if (ai != null) {
+            ai.setPonder(ponder);
+        }
+    }
+
     public String getGameMode() {
         return gameMode;
     }
 
     private void resetGame(boolean firstTime) {
+        cancelAiMove();
         chessBoard = new GridPane();
         board = new Board();
         gameLogic = new GameLogic(board);
         ai = new AI(board, gameLogic, difficulty);
         ai.setGameMode(gameMode);
+        ai.setHashSize(hashSizeMb);
+        ai.setThreads(searchThreads);
+        ai.setPonder(ponder);
 
         for (int row = 0; row < Board.getBoardSize(); row++) {
             for (int col = 0; col < Board.getBoardSize(); col++) {
@@ -315,20 +344,10 @@ public class ChessGame extends Application {
         historyTable.getColumns().addAll(gameIdColumn, winnerColumn, difficultyColumn, dateColumn, moveCountColumn, durationColumn, timeLimitColumn, gameModeColumn, pgnColumn);
 
         ObservableList<GameRecord> gameRecords = FXCollections.observableArrayList();
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement("SELECT game_id, winner, played_date, pgn, move_count, duration, difficulty, time_limit, game_mode FROM games ORDER BY played_date DESC")) {
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                int gameId = rs.getInt("game_id");
-                String winner = rs.getString("winner");
-                String playedDate = rs.getString("played_date");
-                String pgn = rs.getString("pgn");
-                int moveCount = rs.getInt("move_count");
-                int duration = rs.getInt("duration");
-                String difficulty = rs.getString("difficulty");
-                String timeLimit = rs.getString("time_limit");
-                String gameMode = rs.getString("game_mode");
-                gameRecords.add(new GameRecord(gameId, winner, difficulty, playedDate, moveCount, duration, pgn, timeLimit, gameMode));
+        try {
+            for (SavedGame game : GameStore.loadAll()) {
+                gameRecords.add(new GameRecord(game.gameId(), game.winner(), game.difficulty(), game.playedDate(),
+                        game.moveCount(), game.duration(), game.pgn(), game.timeLimit(), game.gameMode()));
             }
         } catch (SQLException e) {
             Alert alert = new Alert(Alert.AlertType.ERROR);
@@ -387,9 +406,8 @@ public class ChessGame extends Application {
         clearButton.setOnAction(e -> {
             Alert confirm = new Alert(Alert.AlertType.CONFIRMATION, "Bạn có chắc muốn xóa toàn bộ lịch sử?");
             if (confirm.showAndWait().get() == ButtonType.OK) {
-                try (Connection conn = DatabaseConnection.getConnection();
-                     PreparedStatement pstmt = conn.prepareStatement("DELETE FROM games")) {
-                    pstmt.executeUpdate();
+                try {
+                    GameStore.deleteAll();
                     gameRecords.clear();
                     historyTable.setItems(gameRecords);
                 } catch (SQLException ex) {
@@ -435,11 +453,8 @@ public class ChessGame extends Application {
     }
 
     private void deleteSingleGame(int gameId, ObservableList<GameRecord> gameRecords, TableView<GameRecord> historyTable) {
-        String sql = "DELETE FROM games WHERE game_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, gameId);
-            pstmt.executeUpdate();
+        try {
+            GameStore.delete(gameId);
 
             gameRecords.removeIf(record -> record.gameIdProperty().get() == gameId);
             historyTable.refresh();
@@ -535,10 +550,8 @@ public class ChessGame extends Application {
 
                 if (gameLogic.isGameOver(true)) {
                     moveHistory.add(moveNumber + ". " + whiteMove);
-                    String result = gameLogic.isKingInCheck(false) ? "White" : "Draw";
-                    if (result.equals("Draw")) {
-                        String reason = gameLogic.getPositionCount().getOrDefault(gameLogic.getBoardState(true), 0) >= 3 ? "Threefold repetition" :
-                                gameLogic.getMoveCountWithoutCaptureOrPawn() >= 100 ? "50-move rule" : "Insufficient material";
+                    if (gameLogic.getGameEnd() != GameEnd.CHECKMATE) {
+                        String reason = gameLogic.getDrawReason();
                         saveGameToDatabase("Draw (" + reason + ")");
                         showOutcomePanel("Draw! (" + reason + ")", "draw_sound.wav");
                     } else {
@@ -548,52 +561,82 @@ public class ChessGame extends Application {
                     return;
                 }
 
-                ai.makeMove(chessBoard);
-                int[] aiMove = ai.getLastMove();
-                String blackMove = convertToChessNotation(aiMove[0], aiMove[1], aiMove[2], aiMove[3]);
-                ChessPiece aiPiece = board.getPiece(aiMove[2], aiMove[3]);
+                requestAiMove(whiteMove);
+            } else {
+                clearHighlights();
+                selectedPiece = null;
+            }
+        }
+    }
 
-                if (gameLogic.isPawnPromotion(aiPiece, aiMove[2])) {
-                    String promotedPiece = "queen";
-                    String imagePath = "/pieces/75px_black_" + promotedPiece + ".png";
-                    ChessPiece newPiece = new ChessPiece(promotedPiece, false, imagePath);
-                    newPiece.setHasMoved(true);
-                    board.setPiece(aiMove[2], aiMove[3], newPiece);
-                    chessBoard.getChildren().remove(aiPiece.getImageView());
-                    chessBoard.add(newPiece.getImageView(), aiMove[3], aiMove[2]);
-                    blackMove = convertToChessNotation(aiMove[0], aiMove[1], aiMove[2], aiMove[3]) + "=" + promotedPiece.substring(0, 1).toUpperCase();
-                } else if (aiPiece.getType().equals("king") && Math.abs(aiMove[1] - aiMove[3]) == 2) {
-                    blackMove = (aiMove[3] > aiMove[1]) ? "O-O" : "O-O-O";
-                }
+    // The search runs off the FX thread; the result is applied back on it unless the request was cancelled meanwhile
+    private void requestAiMove(String whiteMove) {
+        ai.setClock(timeLimit.equals("Không giới hạn") ? 0 : blackTime * 1000, timeIncrement * 1000L);
+        CompletableFuture<Integer> task = ai.computeMoveAsync();
+        aiTask = task;
+        task.whenComplete((move, error) -> Platform.runLater(() -> {
+            if (task != aiTask) return; // Cancelled or replaced by a new game
+            aiTask = null;
+            if (error != null) {
+                System.err.println("AI move failed: " + error.getMessage());
+                return;
+            }
+            if (move == Move.NONE) return;
+            ai.applyMove(move, chessBoard);
+            finishAiTurn(whiteMove);
+        }));
+    }
 
-                blackTime += timeIncrement;
-                updateTimeLabels();
+    void cancelAiMove() {
+        if (ai != null) {
+            ai.cancel(); // Also stops pondering
+        }
+        if (aiTask != null) {
+            aiTask.cancel(false);
+            aiTask = null;
+        }
+    }
 
-                gameLogic.setLastMove(aiMove[0], aiMove[1], aiMove[2], aiMove[3]);
-                moveHistory.add(moveNumber + ". " + whiteMove + " " + blackMove);
-                moveNumber++;
+    private void finishAiTurn(String whiteMove) {
+        int[] aiMove = ai.getLastMove();
+        String blackMove = convertToChessNotation(aiMove[0], aiMove[1], aiMove[2], aiMove[3]);
+        ChessPiece aiPiece = board.getPiece(aiMove[2], aiMove[3]);
+
+        if (gameLogic.isPawnPromotion(aiPiece, aiMove[2])) {
+            String promotedPiece = ai.getLastPromotion() != null ? ai.getLastPromotion() : "queen";
+            String imagePath = "/pieces/75px_black_" + promotedPiece + ".png";
+            ChessPiece newPiece = new ChessPiece(promotedPiece, false, imagePath);
+            newPiece.setHasMoved(true);
+            board.setPiece(aiMove[2], aiMove[3], newPiece);
+            chessBoard.getChildren().remove(aiPiece.getImageView());
+            chessBoard.add(newPiece.getImageView(), aiMove[3], aiMove[2]);
+            blackMove = convertToChessNotation(aiMove[0], aiMove[1], aiMove[2], aiMove[3]) + "=" + promotedPiece.substring(0, 1).toUpperCase();
+        } else if (aiPiece.getType().equals("king") && Math.abs(aiMove[1] - aiMove[3]) == 2) {
+            blackMove = (aiMove[3] > aiMove[1]) ? "O-O" : "O-O-O";
+        }
 
-                uiPanel.updateMoveList(blackMove);
+        blackTime += timeIncrement;
+        updateTimeLabels();
 
-                if (gameLogic.isGameOver(false)) {
-                    String result = gameLogic.isKingInCheck(true) ? "Black" : "Draw";
-                    if (result.equals("Draw")) {
-                        String reason = gameLogic.getPositionCount().getOrDefault(gameLogic.getBoardState(false), 0) >= 3 ? "Threefold repetition" :
-                                gameLogic.getMoveCountWithoutCaptureOrPawn() >= 100 ? "50-move rule" : "Insufficient material";
-                        saveGameToDatabase("Draw (" + reason + ")");
-                        showOutcomePanel("Draw! (" + reason + ")", "draw_sound.wav");
-                    } else {
-                        saveGameToDatabase("Black");
-                        showOutcomePanel("Black Win!", "lose.wav");
-                    }
-                } else {
-                    isWhiteTurn = true;
-                    turnLabel.setText("White's Turn");
-                }
+        gameLogic.setLastMove(aiMove[0], aiMove[1], aiMove[2], aiMove[3]);
+        moveHistory.add(moveNumber + ". " + whiteMove + " " + blackMove);
+        moveNumber++;
+
+        uiPanel.updateMoveList(blackMove);
+
+        if (gameLogic.isGameOver(false)) {
+            if (gameLogic.getGameEnd() != GameEnd.CHECKMATE) {
+                String reason = gameLogic.getDrawReason();
+                saveGameToDatabase("Draw (" + reason + ")");
+                showOutcomePanel("Draw! (" + reason + ")", "draw_sound.wav");
             } else {
-                clearHighlights();
-                selectedPiece = null;
+                saveGameToDatabase("Black");
+                showOutcomePanel("Black Win!", "lose.wav");
             }
+        } else {
+            isWhiteTurn = true;
+            turnLabel.setText("White's Turn");
+            ai.startPondering();
         }
     }
 
@@ -656,18 +699,9 @@ public class ChessGame extends Application {
         String pgn = String.join(" ", moveHistory);
         int moveCount = moveHistory.size();
         long duration = ChronoUnit.SECONDS.between(gameStartTime, LocalDateTime.now());
-        String sql = "INSERT INTO games (winner, pgn, move_count, duration, difficulty, time_limit, game_mode) VALUES (?, ?, ?, ?, ?, ?, ?)";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, winner);
-            pstmt.setString(2, pgn);
-            pstmt.setInt(3, moveCount);
-            pstmt.setLong(4, duration);
-            pstmt.setString(5, difficulty);
-            pstmt.setString(6, timeLimit);
-            pstmt.setString(7, gameMode);
-            pstmt.executeUpdate();
+
+        try {
+            GameStore.save(winner, pgn, moveCount, duration, difficulty, timeLimit, gameMode);
         } catch (SQLException e) {
             Alert alert = new Alert(Alert.AlertType.ERROR);
             alert.setTitle("Lỗi lưu lịch sử");
@@ -697,6 +731,7 @@ public class ChessGame extends Application {
     }
 
     private void showOutcomePanel(String result, String soundFile) {
+        cancelAiMove(); // Black may lose on time while the AI is still thinking
         if (timer != null) {
             timer.stop();
         }
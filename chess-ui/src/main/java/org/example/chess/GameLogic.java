@@ -0,0 +1,117 @@
+package org.example.chess;
+
+import org.example.chess.engine.GameEnd;
+import org.example.chess.engine.Move;
+import org.example.chess.engine.MoveGenerator;
+import org.example.chess.engine.Position;
+
+public class GameLogic {
+    private Board board;
+    private Position position;
+    private int[] lastMove;
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+    private int moveCountWithoutCaptureOrPawn;
+    private GameEnd gameEnd; // Set by isGameOver, null while the game goes on
+
+    public GameLogic(Board board) {
+        this.board = board;
+        this.position = board.getPosition();
+        this.lastMove = new int[4];
+        this.moveCountWithoutCaptureOrPawn = 0;
+    }
+
+    public boolean isValidMove(ChessPiece piece, int fromRow, int fromCol, int toRow, int toCol) {
+        return piece != null && isValidMove(fromRow, fromCol, toRow, toCol);
+    }
+
+    public boolean isValidMove(int fromRow, int fromCol, int toRow, int toCol) {
+        if (toRow < 0 || toRow >= Board.getBoardSize() || toCol < 0 || toCol >= Board.getBoardSize()) return false;
+        return findMove(Position.square(fromRow, fromCol), Position.square(toRow, toCol)) != Move.NONE;
+    }
+
+    // Legal move of the side to move between the two squares (queen promotion when several match), or Move.NONE
+    public int findMove(int from, int to) {
+        int piece = position.pieceAt(from);
+        if (piece == Position.EMPTY || Position.colorOf(piece) != position.getSideToMove()) return Move.NONE;
+        int count = MoveGenerator.generateLegal(position, moveBuffer, 0);
+        for (int i = 0; i < count; i++) {
+            int move = moveBuffer[i];
+            if (Move.from(move) == from && Move.to(move) == to
+                    && (!Move.isPromotion(move) || Move.promotionType(move) == Position.QUEEN)) {
+                return move;
+            }
+        }
+        return Move.NONE;
+    }
+
+    // Precomputed attack tables from the king square, no move generation or console output here
+    public boolean isKingInCheck(boolean isWhite) {
+        int color = isWhite ? Position.WHITE : Position.BLACK;
+        return position.kingSquare(color) == -1 || position.isInCheck(color);
+    }
+
+    public boolean isGameOver(boolean isWhiteTurn) {
+        boolean isWhite = !isWhiteTurn;
+        GameEnd end = GameEnd.of(position);
+        gameEnd = end;
+        if (end == null) return false;
+        switch (end) {
+            case CHECKMATE -> System.out.println("Checkmate: " + (isWhite ? "White" : "Black") + " Lose");
+            case STALEMATE -> System.out.println("Draw: " + (isWhite ? "White" : "Black") + " No valid moves (Stalemate)");
+            case REPETITION -> System.out.println("Draw: Threefold repetition");
+            case FIFTY_MOVES -> System.out.println("Draw: 50-move rule");
+            case INSUFFICIENT_MATERIAL -> System.out.println("Draw: Insufficient material");
+        }
+        return true;
+    }
+
+    public GameEnd getGameEnd() {
+        return gameEnd;
+    }
+
+    public String getDrawReason() {
+        return switch (gameEnd) {
+            case STALEMATE -> "Stalemate";
+            case REPETITION -> "Threefold repetition";
+            case FIFTY_MOVES -> "50-move rule";
+            case INSUFFICIENT_MATERIAL -> "Insufficient material";
+            default -> null;
+        };
+    }
+
+    public boolean isPawnPromotion(ChessPiece piece, int toRow) {
+        return piece.getType().equals("pawn") && ((piece.isWhite() && toRow == 0) || (!piece.isWhite() && toRow == 7));
+    }
+
+    public void setLastMove(int fromRow, int fromCol, int toRow, int toCol) {
+        lastMove[0] = fromRow;
+        lastMove[1] = fromCol;
+        lastMove[2] = toRow;
+        lastMove[3] = toCol;
+
+        // Cập nhật bộ đếm cho luật 50 nước
+        moveCountWithoutCaptureOrPawn = position.getHalfmoveClock();
+    }
+
+    // The Position keeps the key of every position reached in the game on its undo stack
+    public int getRepetitionCount() {
+        return position.repetitionCount() + 1;
+    }
+
+    public boolean isThreefoldRepetition() {
+        return getRepetitionCount() >= 3;
+    }
+
+    public int[] getLastMove() {
+        return lastMove;
+    }
+
+    public int getMoveCountWithoutCaptureOrPawn() {
+        return moveCountWithoutCaptureOrPawn;
+    }
+
+    public void reset() {
+        moveCountWithoutCaptureOrPawn = 0;
+        gameEnd = null;
+    }
+}
\ No newline at end of file
@@ -21,6 +21,9 @@ public class UIPanel {
     private String difficulty = "Easy"; // Mặc định là Dễ
     private String timeLimit = "Không giới hạn";
     private String gameMode = "Standard";
+    private int hashSize = AI.DEFAULT_HASH_MB; // Bảng chuyển vị của AI, MB
+    private int searchThreads = Runtime.getRuntime().availableProcessors();
+    private boolean ponder; // AI suy nghĩ cả trong lượt của người chơi (chỉ ở độ khó Khó)
     private Label difficultyLabel;
     private Label timeLimitLabel;
     private Label gameModeLabel;
@@ -159,6 +162,35 @@ public class UIPanel {
             timeLimitLabel.setText("Thời gian: " + timeLimit);
         });
 
+        Label hashLabel = new Label("Bộ nhớ AI:");
+        hashLabel.setStyle("-fx-font-size: 18px; -fx-text-fill: #FFFFFF; -fx-font-weight: bold;");
+
+        ComboBox<String> hashBox = new ComboBox<>();
+        hashBox.getItems().addAll("16 MB", "32 MB", "64 MB", "128 MB", "256 MB");
+        hashBox.setValue(hashSize + " MB");
+        hashBox.setStyle("-fx-font-size: 16px; -fx-background-color: #FFFFFF; -fx-border-color: #B0BEC5; -fx-border-radius: 5; -fx-padding: 5;");
+        hashBox.setOnAction(e -> hashSize = Integer.parseInt(hashBox.getValue().split(" ")[0]));
+
+        Label threadsLabel = new Label("Luồng:");
+        threadsLabel.setStyle("-fx-font-size: 18px; -fx-text-fill: #FFFFFF; -fx-font-weight: bold;");
+
+        ComboBox<Integer> threadsBox = new ComboBox<>();
+        for (int threads = 1; threads <= Runtime.getRuntime().availableProcessors(); threads *= 2) {
+            threadsBox.getItems().add(threads);
+        }
+        if (!threadsBox.getItems().contains(searchThreads)) threadsBox.getItems().add(searchThreads);
+        threadsBox.setValue(searchThreads);
+        threadsBox.setStyle("-fx-font-size: 16px; -fx-background-color: #FFFFFF; -fx-border-color: #B0BEC5; -fx-border-radius: 5; -fx-padding: 5;");
+        threadsBox.setOnAction(e -> searchThreads = threadsBox.getValue());
+
+        CheckBox ponderBox = new CheckBox("Suy nghĩ trước");
+        ponderBox.setStyle("-fx-font-size: 18px; -fx-text-fill: #FFFFFF; -fx-font-weight: bold;");
+        ponderBox.setSelected(ponder);
+        ponderBox.setOnAction(e -> ponder = ponderBox.isSelected());
+
+        HBox engineBox = new HBox(15, hashLabel, hashBox, threadsLabel, threadsBox, ponderBox);
+        engineBox.setAlignment(Pos.CENTER);
+
         Button startButton = new Button("Bắt đầu");
         startButton.setStyle("-fx-font-size: 24px; -fx-background-color: #4CAF50; -fx-text-fill: white; -fx-padding: 15 40; -fx-background-radius: 10; -fx-font-weight: bold;");
         startButton.setEffect(new DropShadow(5, Color.GRAY));
@@ -168,6 +200,9 @@ public class UIPanel {
             chessGame.setDifficulty(difficulty);
             chessGame.setTimeLimit(timeLimit);
             chessGame.setGameMode(gameMode);
+            chessGame.setHashSize(hashSize);
+            chessGame.setSearchThreads(searchThreads);
+            chessGame.setPonder(ponder);
             startGameCallback.run();
             updateMoveList("");
             primaryStage.centerOnScreen();
@@ -183,7 +218,7 @@ public class UIPanel {
         HBox buttonBox = new HBox(20, startButton, backButton);
         buttonBox.setAlignment(Pos.CENTER);
 
-        layout.getChildren().addAll(titleLabel, gameModeLabel, gameModeBox, difficultyLabel, difficultyBox, timeLimitLabel, timeLimitBox, buttonBox);
+        layout.getChildren().addAll(titleLabel, gameModeLabel, gameModeBox, difficultyLabel, difficultyBox, timeLimitLabel, timeLimitBox, engineBox, buttonBox);
         Scene scene = new Scene(layout, SCENE_WIDTH, SCENE_HEIGHT);
         primaryStage.setResizable(true);
         return scene;
@@ -254,7 +289,10 @@ public class UIPanel {
         Button backButton = new Button("Quay lại");
         backButton.setStyle("-fx-font-size: 14px; -fx-padding: 5 15; -fx-background-color: #2196F3; -fx-text-fill: white; -fx-background-radius: 5;");
         backButton.setEffect(new DropShadow(3, Color.GRAY));
-        backButton.setOnAction(e -> primaryStage.setScene(createMainMenuScene()));
+        backButton.setOnAction(e -> {
+            chessGame.cancelAiMove();
+            primaryStage.setScene(createMainMenuScene());
+        });
 
         HBox buttonBox = new HBox(15, resetButton, backButton);
         buttonBox.setAlignment(Pos.CENTER);